@@ -0,0 +1,42 @@
+package dictionary.bench;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the dictionary benchmarks, reporting throughput, average latency
+ * and allocation rate (gc profiler).
+ * Accepts the standard JMH command line options, for example
+ * -p size=10000 to run only on the small dictionary
+ */
+public class BenchmarkRunner {
+    /**
+     * Run the benchmarks
+     * @param args JMH command line options
+     * @throws CommandLineOptionException thrown when the options are invalid
+     * @throws RunnerException thrown when a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(DictionaryBenchmark.class.getName());
+        }
+
+        options.mode(Mode.Throughput)
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .addProfiler(GCProfiler.class);
+
+        new Runner(options.build()).run();
+    }
+}
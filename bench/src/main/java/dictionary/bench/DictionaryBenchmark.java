@@ -0,0 +1,290 @@
+package dictionary.bench;
+
+import dictionary.CompressedDictionary;
+import dictionary.Dictionary;
+import dictionary.OffHeapDictionary;
+import dictionary.Term;
+import dictionary.TermExistsException;
+import dictionary.TermNotExistsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Benchmarks of the dictionary lookup and mutation hot paths
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DictionaryBenchmark {
+    private static final int KEYS_COUNT = 1 << 16;
+    private static final long SEED = 42;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"64"})
+    private int explanationLength;
+
+    private Dictionary dictionary;
+    private String[] hits;
+    private String[] misses;
+    private String[] explanations;
+    private int next;
+
+    /**
+     * Generate the dictionary and the benchmark arguments
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDictionaryGenerator generator = new SyntheticDictionaryGenerator(SEED, explanationLength);
+        dictionary = generator.generate(size);
+
+        // Sample existing terms, spread over the whole dictionary
+        hits = SyntheticDictionaryGenerator.sampleHits(dictionary, KEYS_COUNT);
+
+        misses = new String[KEYS_COUNT];
+        explanations = new String[KEYS_COUNT];
+        for (int i = 0; i < KEYS_COUNT; ++i) {
+            // Upper case letters never appear in generated terms
+            misses[i] = generator.nextTerm() + "X";
+            explanations[i] = generator.nextExplanation();
+        }
+
+        next = 0;
+    }
+
+    /**
+     * Get the next existing term argument
+     * @return existing term
+     */
+    private String nextHit() {
+        next = (next + 1) % KEYS_COUNT;
+        return hits[next % hits.length];
+    }
+
+    /**
+     * Get the next missing term argument
+     * @return term that doesn't exist
+     */
+    private String nextMiss() {
+        next = (next + 1) % KEYS_COUNT;
+        return misses[next];
+    }
+
+    @Benchmark
+    public Term getTermHit() throws TermNotExistsException {
+        return dictionary.getTerm(nextHit());
+    }
+
+    @Benchmark
+    public Term getTermMiss() {
+        try {
+            return dictionary.getTerm(nextMiss());
+        } catch (TermNotExistsException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Term findTermMiss() {
+        return dictionary.findTerm(nextMiss());
+    }
+
+    @Benchmark
+    public boolean isTermExistsHit() {
+        return dictionary.isTermExists(nextHit());
+    }
+
+    @Benchmark
+    public boolean isTermExistsMiss() {
+        return dictionary.isTermExists(nextMiss());
+    }
+
+    @Benchmark
+    public void updateTerm() throws TermNotExistsException {
+        dictionary.updateTerm(nextHit(), explanations[next]);
+    }
+
+    /**
+     * Add new term and remove it, so the dictionary size stays the same
+     */
+    @Benchmark
+    public void addAndRemoveTerm() throws TermExistsException, TermNotExistsException {
+        String term = nextMiss();
+        dictionary.addTerm(term, explanations[next]);
+        dictionary.removeTerm(term);
+    }
+
+    /**
+     * Remove existing term and add it back, so the dictionary size stays the same
+     */
+    @Benchmark
+    public void removeAndAddTerm() throws TermExistsException, TermNotExistsException {
+        Term term = dictionary.getTerm(nextHit());
+        dictionary.removeTerm(term);
+        dictionary.addTerm(term);
+    }
+
+    /**
+     * Benchmarks of whole dictionary file import and export
+     */
+    @State(Scope.Thread)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+    @Warmup(iterations = 2, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class FileBenchmark {
+        @Param({"10000", "1000000", "10000000"})
+        private int size;
+
+        @Param({"64"})
+        private int explanationLength;
+
+        private Dictionary dictionary;
+        private Path file;
+
+        /**
+         * Generate the dictionary and its file
+         * @throws IOException thrown in case of file error
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dictionary = new SyntheticDictionaryGenerator(SEED, explanationLength).generate(size);
+            file = Files.createTempFile("dictionary-benchmark", ".txt");
+            dictionary.exportToFile(file);
+        }
+
+        /**
+         * Delete the dictionary file
+         * @throws IOException thrown in case of file error
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+
+        @Benchmark
+        public Dictionary createDictionaryFromFile() throws IOException {
+            return Dictionary.createDictionaryFromFile(file);
+        }
+
+        @Benchmark
+        public void exportToFile() throws IOException {
+            dictionary.exportToFile(file);
+        }
+    }
+
+    /**
+     * Benchmarks of lookups in the dictionary stored off-heap
+     */
+    @State(Scope.Thread)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class OffHeapBenchmark {
+        @Param({"10000", "1000000", "10000000"})
+        private int size;
+
+        @Param({"64"})
+        private int explanationLength;
+
+        private OffHeapDictionary dictionary;
+        private String[] hits;
+        private String[] misses;
+        private int next;
+
+        /**
+         * Generate the dictionary, move it off-heap, and generate the benchmark arguments
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            SyntheticDictionaryGenerator generator = new SyntheticDictionaryGenerator(SEED, explanationLength);
+            Dictionary heapDictionary = generator.generate(size);
+
+            hits = SyntheticDictionaryGenerator.sampleHits(heapDictionary, KEYS_COUNT);
+
+            misses = new String[KEYS_COUNT];
+            for (int i = 0; i < KEYS_COUNT; ++i) {
+                misses[i] = generator.nextTerm() + "X";
+            }
+
+            dictionary = OffHeapDictionary.create(heapDictionary);
+            next = 0;
+        }
+
+        @Benchmark
+        public Term getTermHit() throws TermNotExistsException {
+            next = (next + 1) % KEYS_COUNT;
+            return dictionary.getTerm(hits[next % hits.length]);
+        }
+
+        @Benchmark
+        public boolean isTermExistsHit() {
+            next = (next + 1) % KEYS_COUNT;
+            return dictionary.isTermExists(hits[next % hits.length]);
+        }
+
+        @Benchmark
+        public boolean isTermExistsMiss() {
+            next = (next + 1) % KEYS_COUNT;
+            return dictionary.isTermExists(misses[next]);
+        }
+    }
+
+    /**
+     * Benchmarks of lookups in the dictionary with compressed explanations
+     */
+    @State(Scope.Thread)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class CompressedBenchmark {
+        @Param({"10000", "1000000", "10000000"})
+        private int size;
+
+        @Param({"64"})
+        private int explanationLength;
+
+        private CompressedDictionary dictionary;
+        private String[] hits;
+        private int next;
+
+        /**
+         * Generate the dictionary, compress it, and generate the benchmark arguments
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            SyntheticDictionaryGenerator generator = new SyntheticDictionaryGenerator(SEED, explanationLength);
+            Dictionary heapDictionary = generator.generate(size);
+
+            hits = SyntheticDictionaryGenerator.sampleHits(heapDictionary, KEYS_COUNT);
+
+            dictionary = CompressedDictionary.create(heapDictionary);
+            next = 0;
+        }
+
+        @Benchmark
+        public Term getTermHit() throws TermNotExistsException {
+            next = (next + 1) % KEYS_COUNT;
+            return dictionary.getTerm(hits[next % hits.length]);
+        }
+
+        @Benchmark
+        public boolean isTermExistsHit() {
+            next = (next + 1) % KEYS_COUNT;
+            return dictionary.isTermExists(hits[next % hits.length]);
+        }
+    }
+}
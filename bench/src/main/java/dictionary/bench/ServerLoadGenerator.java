@@ -0,0 +1,233 @@
+package dictionary.bench;
+
+import dictionary.DictionaryServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator of a dictionary server, measures its lookups throughput.
+ * Adds synthetic terms to the server, then looks them up from several connections,
+ * each keeping a number of pipelined requests in flight.
+ *
+ * Usage: host port [connections] [seconds] [pipeline depth] [terms per request] [terms count]
+ * With more than one term per request the lookups are sent as batched MGET requests
+ */
+public class ServerLoadGenerator {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String host;
+    private final int port;
+    private final int pipelineDepth;
+    private final int batchSize;
+    private final List<String> terms;
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong found = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Initialize load generator
+     * @param host server host
+     * @param port server port
+     * @param pipelineDepth number of requests sent before waiting for responses
+     * @param batchSize number of terms looked up by each request
+     * @param terms the terms to look up
+     */
+    public ServerLoadGenerator(String host, int port, int pipelineDepth, int batchSize, List<String> terms) {
+        this.host = host;
+        this.port = port;
+        this.pipelineDepth = pipelineDepth;
+        this.batchSize = batchSize;
+        this.terms = terms;
+    }
+
+    /**
+     * Run the load generator
+     * @param args command line arguments
+     * @throws IOException thrown in case of connection error
+     * @throws InterruptedException thrown when interrupted while waiting for the connections
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: host port [connections] [seconds] [pipeline depth]"
+                    + " [terms per request] [terms count]");
+            System.exit(1);
+        }
+
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int connections = (args.length > 2) ? Integer.parseInt(args[2]) : 4;
+        int seconds = (args.length > 3) ? Integer.parseInt(args[3]) : 10;
+        int pipelineDepth = (args.length > 4) ? Integer.parseInt(args[4]) : 64;
+        int batchSize = (args.length > 5) ? Integer.parseInt(args[5]) : 1;
+        int count = (args.length > 6) ? Integer.parseInt(args[6]) : 100_000;
+
+        List<String> terms = populate(host, port, count, pipelineDepth);
+        ServerLoadGenerator generator = new ServerLoadGenerator(host, port, pipelineDepth, batchSize, terms);
+        generator.run(connections, seconds);
+    }
+
+    /**
+     * Add synthetic terms to the server.
+     * The requests are pipelined in windows, so neither side blocks on a full socket buffer
+     * @param host server host
+     * @param port server port
+     * @param count number of terms to add
+     * @param pipelineDepth number of requests sent before waiting for responses
+     * @return the added terms
+     * @throws IOException thrown in case of connection error
+     */
+    private static List<String> populate(String host, int port, int count, int pipelineDepth) throws IOException {
+        SyntheticDictionaryGenerator generator = new SyntheticDictionaryGenerator(42, 60);
+        List<String> terms = new ArrayList<String>(count);
+        StringBuilder request = new StringBuilder();
+
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     socket.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            socket.setTcpNoDelay(true);
+
+            // Existing terms fail, they are looked up all the same
+            int failures = 0;
+            for (int sent = 0; sent < count; ) {
+                int window = Math.min(pipelineDepth, count - sent);
+                for (int i = 0; i < window; ++i) {
+                    String term = generator.nextTerm();
+                    terms.add(term);
+
+                    request.setLength(0);
+                    request.append("ADD\t");
+                    DictionaryServer.escape(term, request).append('\t');
+                    DictionaryServer.escape(generator.nextExplanation(), request).append('\n');
+                    out.append(request);
+                }
+                out.flush();
+
+                for (int i = 0; i < window; ++i) {
+                    String response = in.readLine();
+                    if (null == response) {
+                        throw new IOException("Connection closed");
+                    }
+
+                    if (!response.startsWith("OK")) {
+                        ++failures;
+                    }
+                }
+                sent += window;
+            }
+
+            out.append("QUIT\n");
+            out.flush();
+
+            System.out.printf("Added %d terms, %d already existed%n", count - failures, failures);
+        }
+
+        return terms;
+    }
+
+    /**
+     * Look up terms from the connections for given time, and print the throughput
+     * @param connections number of connections
+     * @param seconds how long to run
+     * @throws InterruptedException thrown when interrupted while waiting for the connections
+     */
+    public void run(int connections, int seconds) throws InterruptedException {
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < connections; ++i) {
+            long seed = i;
+            Thread thread = new Thread(() -> runConnection(seed), "load-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d lookups in %.1fs: %.0f lookups/sec, %d found%n",
+                lookups.get(), elapsed, lookups.get() / elapsed, found.get());
+    }
+
+    /**
+     * Look up random terms over a connection until stopped
+     * @param seed seed of the random terms
+     */
+    private void runConnection(long seed) {
+        Random random = new Random(seed);
+        StringBuilder request = new StringBuilder();
+
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     socket.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            socket.setTcpNoDelay(true);
+
+            while (running) {
+                for (int i = 0; i < pipelineDepth; ++i) {
+                    request.setLength(0);
+                    request.append((1 == batchSize) ? "GET" : "MGET");
+                    for (int j = 0; j < batchSize; ++j) {
+                        DictionaryServer.escape(terms.get(random.nextInt(terms.size())), request.append('\t'));
+                    }
+                    out.append(request.append('\n'));
+                }
+                out.flush();
+
+                for (int i = 0; i < pipelineDepth; ++i) {
+                    countFound(in.readLine());
+                }
+                lookups.addAndGet((long) pipelineDepth * batchSize);
+            }
+
+            out.append("QUIT\n");
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Count the found terms of a lookup response
+     * @param response GET or MGET response
+     * @throws IOException thrown when the connection was closed
+     */
+    private void countFound(String response) throws IOException {
+        if (null == response) {
+            throw new IOException("Connection closed");
+        }
+
+        if (1 == batchSize) {
+            if (response.startsWith("OK")) {
+                found.incrementAndGet();
+            }
+
+            return;
+        }
+
+        String[] fields = response.split("\t", -1);
+        int count = 0;
+        for (int i = 1; i < fields.length; ++i) {
+            if (null != DictionaryServer.unescape(fields[i])) {
+                ++count;
+            }
+        }
+        found.addAndGet(count);
+    }
+}
@@ -0,0 +1,130 @@
+package dictionary.bench;
+
+import dictionary.Dictionary;
+import dictionary.Term;
+import dictionary.TermExistsException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates synthetic dictionaries for benchmarks.
+ * The terms are random lower case words, the explanations are random
+ * words of up to 8 letters separated by spaces
+ */
+public class SyntheticDictionaryGenerator {
+    private static final int MIN_TERM_LENGTH = 6;
+    private static final int MAX_TERM_LENGTH = 12;
+    private static final int MAX_WORD_LENGTH = 8;
+
+    private final Random random;
+    private final int explanationLength;
+
+    /**
+     * Initialize generator
+     * @param seed random seed, the same seed generates the same terms
+     * @param explanationLength length of every generated explanation
+     */
+    public SyntheticDictionaryGenerator(long seed, int explanationLength) {
+        random = new Random(seed);
+        this.explanationLength = explanationLength;
+    }
+
+    /**
+     * Generate dictionary
+     * @param count number of terms in the dictionary
+     * @return the generated dictionary
+     */
+    public Dictionary generate(int count) {
+        Dictionary dictionary = new Dictionary();
+        while (dictionary.size() < count) {
+            try {
+                dictionary.addTerm(nextTerm(), nextExplanation());
+            } catch (TermExistsException e) {
+                // Random collision, try another term
+            }
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Generate dictionary file
+     * @param count number of terms in the file
+     * @param filePath where to write the file
+     * @throws IOException thrown in case of file error
+     */
+    public void generateFile(int count, Path filePath) throws IOException {
+        generate(count).exportToFile(filePath);
+    }
+
+    /**
+     * Sample existing terms, spread evenly over the whole dictionary
+     * @param dictionary the dictionary to sample
+     * @param count maximal number of terms to sample
+     * @return the sampled terms, in sorted order, count of them unless the dictionary is smaller
+     */
+    public static String[] sampleHits(Dictionary dictionary, int count) {
+        String[] hits = new String[Math.min(count, dictionary.size())];
+        if (0 == hits.length) {
+            return hits;
+        }
+
+        int step = Math.max(1, dictionary.size() / hits.length);
+        int index = 0;
+        int position = 0;
+        for (Term term : dictionary) {
+            if (index == hits.length) {
+                break;
+            }
+
+            if (0 == position++ % step) {
+                hits[index++] = term.getTerm();
+            }
+        }
+
+        return hits;
+    }
+
+    /**
+     * Generate random term
+     * @return the term
+     */
+    public String nextTerm() {
+        return nextWord(MIN_TERM_LENGTH + random.nextInt(MAX_TERM_LENGTH - MIN_TERM_LENGTH + 1));
+    }
+
+    /**
+     * Generate random explanation
+     * @return the explanation
+     */
+    public String nextExplanation() {
+        StringBuilder explanation = new StringBuilder(explanationLength);
+        while (explanation.length() < explanationLength) {
+            if (explanation.length() > 0) {
+                explanation.append(' ');
+            }
+
+            explanation.append(nextWord(1 + random.nextInt(MAX_WORD_LENGTH)));
+        }
+
+        explanation.setLength(explanationLength);
+
+        return explanation.toString().trim();
+    }
+
+    /**
+     * Generate random lower case word
+     * @param length word length
+     * @return the word
+     */
+    private String nextWord(int length) {
+        char[] word = new char[length];
+        for (int i = 0; i < length; ++i) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+
+        return new String(word);
+    }
+}
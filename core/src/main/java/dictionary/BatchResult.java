@@ -0,0 +1,108 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represent the outcome of applying a batch of term operations
+ */
+public class BatchResult {
+    /**
+     * Represent operation of the batch that wasn't applied
+     */
+    public static class Failure {
+        private final int index;
+        private final TermOperation operation;
+        private final Exception cause;
+
+        /**
+         * Initialize failure
+         * @param index index of the operation in the batch
+         * @param operation the failed operation
+         * @param cause TermExistsException or TermNotExistsException
+         */
+        Failure(int index, TermOperation operation, Exception cause) {
+            this.index = index;
+            this.operation = operation;
+            this.cause = cause;
+        }
+
+        /**
+         * Get index of the operation in the batch
+         * @return operation index
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Get the failed operation
+         * @return operation
+         */
+        public TermOperation getOperation() {
+            return operation;
+        }
+
+        /**
+         * Get why the operation failed
+         * @return TermExistsException or TermNotExistsException
+         */
+        public Exception getCause() {
+            return cause;
+        }
+    }
+
+    private final int operationsCount;
+    private final List<Failure> failures;
+
+    /**
+     * Initialize result of a batch
+     * @param operationsCount number of operations in the batch
+     */
+    BatchResult(int operationsCount) {
+        this.operationsCount = operationsCount;
+        failures = new ArrayList<Failure>();
+    }
+
+    /**
+     * Record operation that wasn't applied
+     * @param index index of the operation in the batch
+     * @param operation the failed operation
+     * @param cause TermExistsException or TermNotExistsException
+     */
+    void addFailure(int index, TermOperation operation, Exception cause) {
+        failures.add(new Failure(index, operation, cause));
+    }
+
+    /**
+     * Sort the failures by operation index
+     */
+    void sortFailures() {
+        failures.sort((first, second) -> Integer.compare(first.index, second.index));
+    }
+
+    /**
+     * Get number of applied operations
+     * @return applied operations count
+     */
+    public int getAppliedCount() {
+        return operationsCount - failures.size();
+    }
+
+    /**
+     * Get the operations that weren't applied
+     * @return failures, in batch order
+     */
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Checks if every operation was applied
+     * @return true if no operation failed, otherwise false
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
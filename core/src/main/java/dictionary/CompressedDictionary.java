@@ -0,0 +1,404 @@
+package dictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represent a words dictionary whose explanations are stored compressed.
+ * The explanations of every BLOCK_TERMS consecutive terms are compressed together,
+ * with a shared preset dictionary trained on a sample of the explanations,
+ * so text that repeats across the dictionary is stored once in the shared dictionary.
+ * A lookup decompresses only the block of the found term, up to the term. Put a TermCache in
+ * front of the dictionary when the same terms are looked up again and again.
+ * The terms themselves are kept in a front coded TermIndex.
+ *
+ * The stored terms are immutable. Changes are kept in a sorted map on the heap
+ * and merged on lookup and iteration, until compact() folds them into new compressed
+ * storage, with newly trained shared dictionary, which happens automatically once
+ * there are enough of them. Lookups and iteration don't lock, and may run while
+ * the dictionary is changed.
+ */
+public class CompressedDictionary extends StoredTermsDictionary<CompressedDictionary.Storage> {
+    // Bigger blocks compress better, but a lookup decompresses its block up to the found term
+    private static final int BLOCK_TERMS = 8;
+    private static final int SHARED_DICTIONARY_SIZE = SharedDictionaryCodec.MAX_DICTIONARY_SIZE;
+    private static final int SAMPLE_TERMS = 16 * 1024;
+    private static final int MAX_SAMPLE_WORDS = 64;
+    // Bytes taken by an array besides its elements
+    private static final int ARRAY_OVERHEAD = 16;
+
+    /**
+     * Initialize dictionary of stored terms
+     * @param storage the stored terms
+     */
+    private CompressedDictionary(Storage storage) {
+        super(storage);
+    }
+
+    /**
+     * Create compressed dictionary with the terms of given dictionary
+     * @param dictionary dictionary to copy the terms from
+     * @return Dictionary with compressed explanations
+     */
+    public static CompressedDictionary create(Dictionary dictionary) {
+        if (null == dictionary) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        DictionarySnapshot snapshot = dictionary.snapshot();
+
+        return new CompressedDictionary(Storage.build(snapshot, snapshot.size()));
+    }
+
+    /**
+     * Get memory taken by the stored explanations
+     * @return bytes of the compressed blocks and of the shared dictionary
+     */
+    public long getCompressedSize() {
+        return getStorage().compressedSize;
+    }
+
+    /**
+     * Get memory taken by the stored terms
+     * @return bytes of the front coded terms index
+     */
+    public long getKeysSize() {
+        return getStorage().keys.getMemorySize();
+    }
+
+    /**
+     * Get size of the stored explanations before compression
+     * @return bytes of the explanations, encoded as UTF-8
+     */
+    public long getUncompressedSize() {
+        return getStorage().uncompressedSize;
+    }
+
+    @Override
+    Storage buildStorage(Iterable<Term> terms, int count) {
+        return Storage.build(terms, count);
+    }
+
+    /**
+     * Immutable compressed storage of sorted terms, safe to read from any thread.
+     * Block layout: the explanations lengths (varints), followed by the explanations,
+     * UTF-8 encoded and compressed with the shared dictionary. The lengths aren't compressed,
+     * so a lookup decompresses the block only up to the end of the found explanation
+     */
+    static class Storage implements StoredTermsDictionary.Storage {
+        private final TermIndex keys;
+        private final byte[][] blocks;
+        private final SharedDictionaryCodec codec;
+        private final long compressedSize;
+        private final long uncompressedSize;
+
+        /**
+         * Initialize storage
+         * @param keys index of the terms
+         * @param blocks the compressed blocks of explanations
+         * @param codec codec of the blocks, with the shared dictionary
+         * @param uncompressedSize length of all the explanations before compression
+         */
+        private Storage(TermIndex keys, byte[][] blocks, SharedDictionaryCodec codec, long uncompressedSize) {
+            this.keys = keys;
+            this.blocks = blocks;
+            this.codec = codec;
+            this.uncompressedSize = uncompressedSize;
+
+            long compressed = ARRAY_OVERHEAD + codec.getDictionary().length;
+            for (byte[] block : blocks) {
+                compressed += ARRAY_OVERHEAD + block.length;
+            }
+            compressedSize = compressed;
+        }
+
+        /**
+         * Store sorted terms
+         * @param terms the terms, sorted
+         * @param count number of terms
+         * @return the storage
+         */
+        static Storage build(Iterable<Term> terms, int count) {
+            SharedDictionaryCodec codec = new SharedDictionaryCodec(train(terms, count));
+            TermIndex.Builder keys = new TermIndex.Builder();
+            byte[][] blocks = new byte[(count + BLOCK_TERMS - 1) / BLOCK_TERMS][];
+
+            byte[] header = new byte[5 * BLOCK_TERMS];
+            int headerLength = 0;
+            byte[] raw = new byte[1024];
+            int rawLength = 0;
+            byte[] compressed = new byte[0];
+            long uncompressedSize = 0;
+            int i = 0;
+            for (Term term : terms) {
+                keys.add(term.getTerm());
+                byte[] explanation = term.getExplanation().getBytes(StandardCharsets.UTF_8);
+                if (rawLength + explanation.length > raw.length) {
+                    raw = Arrays.copyOf(raw, 2 * (rawLength + explanation.length));
+                }
+
+                headerLength = putLength(header, headerLength, explanation.length);
+                System.arraycopy(explanation, 0, raw, rawLength, explanation.length);
+                rawLength += explanation.length;
+
+                if (0 == ++i % BLOCK_TERMS || i == count) {
+                    int maxLength = headerLength + SharedDictionaryCodec.maxCompressedLength(rawLength);
+                    if (compressed.length < maxLength) {
+                        compressed = new byte[maxLength];
+                    }
+
+                    System.arraycopy(header, 0, compressed, 0, headerLength);
+                    int compressedLength = codec.compress(raw, rawLength, compressed, headerLength);
+                    blocks[(i - 1) / BLOCK_TERMS] = Arrays.copyOf(compressed, compressedLength);
+
+                    uncompressedSize += rawLength;
+                    headerLength = 0;
+                    rawLength = 0;
+                }
+            }
+            codec.endCompression();
+
+            return new Storage(keys.build(), blocks, codec, uncompressedSize);
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public Term find(String term) {
+            int index = keys.indexOf(term);
+
+            return (index < 0) ? null : new Term(term, explanationAt(index));
+        }
+
+        @Override
+        public boolean contains(String term) {
+            return keys.indexOf(term) >= 0;
+        }
+
+        /**
+         * Iterate the stored terms, decompressing every block once
+         * @return iterator to the stored terms, in sorted order
+         */
+        @Override
+        public Iterator<Term> iterator() {
+            Iterator<String> storedKeys = keys.iterator();
+
+            return new Iterator<Term>() {
+                private int index = 0;
+                private String[] explanations;
+
+                @Override
+                public boolean hasNext() {
+                    return storedKeys.hasNext();
+                }
+
+                @Override
+                public Term next() {
+                    String key = storedKeys.next();
+                    if (0 == index % BLOCK_TERMS) {
+                        explanations = explanationsOf(index / BLOCK_TERMS);
+                    }
+
+                    return new Term(key, explanations[index++ % BLOCK_TERMS]);
+                }
+            };
+        }
+
+        /**
+         * Get explanation of stored term
+         * @param index index of the term
+         * @return the explanation
+         */
+        private String explanationAt(int index) {
+            byte[] block = blocks[index / BLOCK_TERMS];
+            int[] lengths = new int[blockTerms(index / BLOCK_TERMS)];
+            int headerLength = readLengths(block, lengths);
+
+            int start = 0;
+            for (int i = 0; i < index % BLOCK_TERMS; ++i) {
+                start += lengths[i];
+            }
+            int length = lengths[index % BLOCK_TERMS];
+
+            // Only up to the end of the explanation
+            byte[] buffer = new byte[blockLength(lengths)];
+            codec.decompress(block, headerLength, block.length, buffer, start + length);
+
+            return new String(buffer, start, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Get explanations of stored block
+         * @param index index of the block
+         * @return the explanations of the block terms
+         */
+        private String[] explanationsOf(int index) {
+            byte[] block = blocks[index];
+            int[] lengths = new int[blockTerms(index)];
+            int headerLength = readLengths(block, lengths);
+
+            byte[] buffer = new byte[blockLength(lengths)];
+            codec.decompress(block, headerLength, block.length, buffer, buffer.length);
+
+            String[] explanations = new String[lengths.length];
+            int start = 0;
+            for (int i = 0; i < explanations.length; ++i) {
+                explanations[i] = new String(buffer, start, lengths[i], StandardCharsets.UTF_8);
+                start += lengths[i];
+            }
+
+            return explanations;
+        }
+
+        /**
+         * Get number of terms in block
+         * @param index index of the block
+         * @return number of terms, BLOCK_TERMS for all the blocks but the last
+         */
+        private int blockTerms(int index) {
+            return Math.min(BLOCK_TERMS, keys.size() - index * BLOCK_TERMS);
+        }
+
+        /**
+         * Read the varint lengths of block header
+         * @param block the block
+         * @param lengths where to read the lengths, one per block term
+         * @return the position after the header
+         */
+        private static int readLengths(byte[] block, int[] lengths) {
+            int position = 0;
+            for (int i = 0; i < lengths.length; ++i) {
+                int length = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = block[position++];
+                    length |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                lengths[i] = length;
+            }
+
+            return position;
+        }
+
+        /**
+         * Get length of block before compression
+         * @param lengths the explanations lengths of the block
+         * @return sum of the lengths
+         */
+        private static int blockLength(int[] lengths) {
+            int length = 0;
+            for (int l : lengths) {
+                length += l;
+            }
+
+            return length;
+        }
+
+        /**
+         * Write varint length
+         * @param raw where to write
+         * @param offset position to write at
+         * @param length the length
+         * @return the position after the written length
+         */
+        private static int putLength(byte[] raw, int offset, int length) {
+            while (length >= 0x80) {
+                raw[offset++] = (byte) (length | 0x80);
+                length >>>= 7;
+            }
+            raw[offset++] = (byte) length;
+
+            return offset;
+        }
+
+        /**
+         * Train the shared dictionary on a sample of the explanations.
+         * Picks the explanations, words and word pairs that repeat the most,
+         * and puts the most valuable last, where they are the cheapest to refer to
+         * @param terms the terms
+         * @param count number of terms
+         * @return the shared dictionary, UTF-8 encoded
+         */
+        private static byte[] train(Iterable<Term> terms, int count) {
+            Map<String, Integer> counts = new HashMap<String, Integer>();
+            int stride = Math.max(1, count / SAMPLE_TERMS);
+            int i = 0;
+            for (Term term : terms) {
+                if (0 == i++ % stride) {
+                    countSegments(term.getExplanation(), counts);
+                }
+            }
+
+            // A segment is worth the bytes it saves in the sample, beyond its own copy
+            List<Map.Entry<String, Integer>> segments = new ArrayList<Map.Entry<String, Integer>>();
+            for (Map.Entry<String, Integer> segment : counts.entrySet()) {
+                if (segment.getValue() > 1 && segment.getKey().length() > 2) {
+                    segments.add(segment);
+                }
+            }
+            segments.sort((first, second) -> Long.compare(
+                    (long) (second.getValue() - 1) * second.getKey().length(),
+                    (long) (first.getValue() - 1) * first.getKey().length()));
+
+            List<byte[]> chosen = new ArrayList<byte[]>();
+            int length = 0;
+            for (Map.Entry<String, Integer> segment : segments) {
+                byte[] bytes = segment.getKey().getBytes(StandardCharsets.UTF_8);
+                if (length + bytes.length > SHARED_DICTIONARY_SIZE) {
+                    continue;
+                }
+
+                chosen.add(bytes);
+                length += bytes.length;
+            }
+
+            byte[] sharedDictionary = new byte[length];
+            int offset = length;
+            for (byte[] bytes : chosen) {
+                offset -= bytes.length;
+                System.arraycopy(bytes, 0, sharedDictionary, offset, bytes.length);
+            }
+
+            return sharedDictionary;
+        }
+
+        /**
+         * Count the segments of explanation: the explanation itself, its words
+         * and its word pairs, each word with the whitespace after it
+         * @param explanation the explanation
+         * @param counts where to count the segments
+         */
+        private static void countSegments(String explanation, Map<String, Integer> counts) {
+            counts.merge(explanation, 1, Integer::sum);
+
+            int start = 0;
+            int previousStart = -1;
+            for (int words = 0; start < explanation.length() && words < MAX_SAMPLE_WORDS; ++words) {
+                int end = start;
+                while (end < explanation.length() && !Character.isWhitespace(explanation.charAt(end))) {
+                    ++end;
+                }
+
+                // The word with the whitespace after it
+                end = Math.min(end + 1, explanation.length());
+                counts.merge(explanation.substring(start, end), 1, Integer::sum);
+                if (previousStart >= 0) {
+                    counts.merge(explanation.substring(previousStart, end), 1, Integer::sum);
+                }
+
+                previousStart = start;
+                start = end;
+            }
+        }
+    }
+}
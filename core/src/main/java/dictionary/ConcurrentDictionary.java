@@ -0,0 +1,164 @@
+package dictionary;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Represent a words dictionary that can be shared between threads.
+ * Lookups and iteration never block, iteration is in sorted order
+ * and reflects the dictionary at some point at or after its creation.
+ * Every add, update and remove is a single atomic operation.
+ * Term change listeners are notified after the operation, so concurrent
+ * changes of the same term may reach them in a different order.
+ * Snapshots copy the terms, so they reflect each term as it was at some point during the copy.
+ */
+public class ConcurrentDictionary extends Dictionary {
+    private final SkipListTermStore store;
+
+    /**
+     * Initialize empty dictionary
+     */
+    public ConcurrentDictionary() {
+        this(new SkipListTermStore());
+    }
+
+    /**
+     * Initialize dictionary with the terms of another dictionary
+     * @param other dictionary to copy the terms from
+     */
+    public ConcurrentDictionary(Dictionary other) {
+        this();
+
+        if (null == other) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        for (Term term : other) {
+            store.putIfAbsent(term);
+        }
+    }
+
+    /**
+     * Initialize dictionary stored in given storage
+     * @param store empty storage to store the terms in
+     */
+    private ConcurrentDictionary(SkipListTermStore store) {
+        super(store);
+        this.store = store;
+    }
+
+    /**
+     * Apply batch of add, update and remove operations, in list order.
+     * Every operation is atomic, the batch as a whole isn't
+     * @param operations operations to apply
+     * @return result of the batch, with the failed operations
+     */
+    @Override
+    public BatchResult applyBatch(List<TermOperation> operations) {
+        if (null == operations) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        for (TermOperation operation : operations) {
+            if (null == operation) {
+                throw new IllegalArgumentException("null argument");
+            }
+        }
+
+        BatchResult result = new BatchResult(operations.size());
+        for (int i = 0; i < operations.size(); ++i) {
+            TermOperation operation = operations.get(i);
+            try {
+                switch (operation.getType()) {
+                    case ADD:
+                        addTerm(operation.getTerm(), operation.getExplanation());
+                        break;
+                    case UPDATE:
+                        updateTerm(operation.getTerm(), operation.getExplanation());
+                        break;
+                    case REMOVE:
+                        removeTerm(operation.getTerm());
+                        break;
+                }
+            } catch (TermExistsException | TermNotExistsException e) {
+                result.addFailure(i, operation, e);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Terms stored in a concurrent skip list, every change is atomic
+     */
+    private static class SkipListTermStore implements TermStore {
+        private final ConcurrentSkipListMap<String, Term> terms = new ConcurrentSkipListMap<String, Term>();
+
+        @Override
+        public Term get(String term) {
+            return terms.get(term);
+        }
+
+        @Override
+        public Term putIfAbsent(Term term) {
+            return terms.putIfAbsent(term.getTerm(), term);
+        }
+
+        @Override
+        public Term replace(Term term) {
+            return terms.replace(term.getTerm(), term);
+        }
+
+        @Override
+        public boolean replace(Term oldTerm, Term newTerm) {
+            return terms.replace(oldTerm.getTerm(), oldTerm, newTerm);
+        }
+
+        @Override
+        public Term remove(String term) {
+            return terms.remove(term);
+        }
+
+        @Override
+        public int size() {
+            return terms.size();
+        }
+
+        @Override
+        public String firstKey() {
+            Map.Entry<String, Term> first = terms.firstEntry();
+
+            return (null == first) ? null : first.getKey();
+        }
+
+        @Override
+        public String ceilingKey(String key) {
+            return terms.ceilingKey(key);
+        }
+
+        @Override
+        public String higherKey(String key) {
+            return terms.higherKey(key);
+        }
+
+        @Override
+        public Iterator<Term> iterator(String fromKey) {
+            Collection<Term> values = (null == fromKey) ? terms.values() : terms.tailMap(fromKey, true).values();
+
+            return Collections.unmodifiableCollection(values).iterator();
+        }
+
+        /**
+         * Get snapshot of the terms, copying them
+         * @return the snapshot
+         */
+        @Override
+        public DictionarySnapshot snapshot() {
+            return new PersistentTermMap(terms.values().toArray(new Term[0])).snapshot();
+        }
+    }
+}
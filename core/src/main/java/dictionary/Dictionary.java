@@ -0,0 +1,831 @@
+package dictionary;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Represent a words dictionary
+ */
+public class Dictionary implements Iterable<Term>, TermLookup {
+    /**
+     * Charset of dictionary files read and written through Path
+     */
+    public static final Charset FILE_CHARSET = StandardCharsets.UTF_8;
+
+    // Batches of at least 1/16 of the dictionary size rebuild the map instead of changing it in place
+    private static final int BATCH_REBUILD_RATIO = 16;
+    private static final DictionaryMetrics METRICS = DictionaryMetrics.getInstance();
+
+    private TermStore dictionary;
+    private final List<TermChangeListener> listeners;
+    private ExplanationIndex explanationIndex;
+
+    /**
+     * Initialize empty dictionary
+     */
+    public Dictionary() {
+        this(new PersistentTermMap());
+    }
+
+    /**
+     * Initialize dictionary stored in given storage
+     * @param store empty storage to store the terms in
+     */
+    Dictionary(TermStore store) {
+        dictionary = store;
+        listeners = new CopyOnWriteArrayList<TermChangeListener>();
+    }
+
+    /**
+     * Create dictionary from file.
+     * The file format is:
+     * <term1>explanation</term1>
+     * <term2>
+     * multi line
+     * explanation
+     * </term2>
+     * ...
+     * @param dictionaryFile where to get the dictionary input
+     * @return Dictionary initialized from the file
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static Dictionary createDictionaryFromFile(Scanner dictionaryFile) throws IllegalArgumentException {
+        if (null == dictionaryFile) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        Dictionary dictionary = new Dictionary();
+
+        long charsCount = 0;
+
+        // Stored directly, the import is recorded once and not as an add of every term
+        while (dictionaryFile.hasNext()) {
+            String termText = getTermTextFromFile(dictionaryFile);
+            charsCount += termText.length();
+            if (null != dictionary.dictionary.putIfAbsent(getTermFromText(termText))) {
+                throw new IllegalArgumentException("Invalid file format");
+            }
+        }
+
+        if (0 != startTime) {
+            METRICS.recordImport(startTime, dictionary.size(), charsCount);
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Create dictionary from file, reading it in a single pass.
+     * The file format is the same as in createDictionaryFromFile(Scanner)
+     * @param dictionaryFile where to get the dictionary input
+     * @return Dictionary initialized from the file
+     * @throws IOException thrown in case of read error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static Dictionary createDictionaryFromFile(Reader dictionaryFile) throws IOException, IllegalArgumentException {
+        if (null == dictionaryFile) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        DictionaryFileParser parser = new DictionaryFileParser(dictionaryFile);
+        Dictionary dictionary = parseDictionary(parser);
+        if (0 != startTime) {
+            METRICS.recordImport(startTime, dictionary.size(), parser.getReadCount());
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Parse dictionary file in a single pass.
+     * The terms are sorted and the dictionary is built from them in linear time,
+     * files exported in sorted order are sorted in linear time too
+     * @param parser parser of the dictionary input
+     * @return Dictionary initialized from the file
+     * @throws IOException thrown in case of read error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    private static Dictionary parseDictionary(DictionaryFileParser parser) throws IOException, IllegalArgumentException {
+        List<Term> terms = new ArrayList<Term>();
+
+        Term term = parser.nextTerm();
+        while (null != term) {
+            terms.add(term);
+            term = parser.nextTerm();
+        }
+
+        Term[] sorted = terms.toArray(new Term[0]);
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; ++i) {
+            if (sorted[i - 1].getTerm().equals(sorted[i].getTerm())) {
+                throw new IllegalArgumentException("Invalid file format");
+            }
+        }
+
+        return createDictionaryFromSortedTerms(sorted);
+    }
+
+    /**
+     * Create dictionary from file.
+     * The file is memory mapped and decoded in place using FILE_CHARSET
+     * @param filePath path of the dictionary file
+     * @return Dictionary initialized from the file
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static Dictionary createDictionaryFromFile(Path filePath) throws IOException, IllegalArgumentException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            Dictionary dictionary = parseDictionary(new DictionaryFileParser(
+                    new MappedFileReader(channel, 0, channel.size(), FILE_CHARSET)));
+            if (0 != startTime) {
+                METRICS.recordImport(startTime, dictionary.size(), channel.size());
+            }
+
+            return dictionary;
+        }
+    }
+
+    /**
+     * Create dictionary from file, parsing it with a thread per available processor
+     * @param filePath path of the dictionary file
+     * @return Dictionary initialized from the file
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static Dictionary createDictionaryFromFileParallel(Path filePath) throws IOException, IllegalArgumentException {
+        return createDictionaryFromFileParallel(filePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create dictionary from file, parsing chunks of it concurrently.
+     * The file format and encoding are the same as in createDictionaryFromFile(Path)
+     * @param filePath path of the dictionary file
+     * @param parallelism number of threads to use
+     * @return Dictionary initialized from the file
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static Dictionary createDictionaryFromFileParallel(Path filePath, int parallelism)
+            throws IOException, IllegalArgumentException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        Dictionary dictionary = createDictionaryFromSortedTerms(
+                ParallelDictionaryImporter.importSortedTerms(filePath, parallelism));
+        if (0 != startTime) {
+            METRICS.recordImport(startTime, dictionary.size(), Files.size(filePath));
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Create dictionary from sorted terms, without comparing them again
+     * @param terms terms sorted by term, without duplicates
+     * @return Dictionary of the terms
+     */
+    static Dictionary createDictionaryFromSortedTerms(Term[] terms) {
+        Dictionary dictionary = new Dictionary();
+        dictionary.dictionary = new PersistentTermMap(terms);
+
+        return dictionary;
+    }
+
+    /**
+     * Create dictionary with the terms of snapshot, in constant time.
+     * The dictionary shares the snapshot terms, its changes don't affect the snapshot
+     * @param snapshot snapshot to start from
+     * @return Dictionary of the snapshot terms
+     */
+    static Dictionary createDictionaryFromSnapshot(DictionarySnapshot snapshot) {
+        Dictionary dictionary = new Dictionary();
+        dictionary.dictionary = new PersistentTermMap(snapshot.getRoot());
+
+        return dictionary;
+    }
+
+    /**
+     * Get the text of the next term from file
+     * @param dictionaryFile where to get the term from
+     * @return The lines of the term in the file
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    private static String getTermTextFromFile(Scanner dictionaryFile) throws IllegalArgumentException {
+        String result = "";
+        boolean isTermFound = false;
+        while (dictionaryFile.hasNextLine()) {
+            result = result.concat(dictionaryFile.nextLine() + "\n");
+            if (result.contains("<") && result.contains("</") && result.contains(">")) {
+                isTermFound = true;
+                break;
+            }
+        }
+
+        if (!isTermFound) {
+            throw new IllegalArgumentException("Invalid file format");
+        }
+
+        return result;
+    }
+
+    /**
+     * Get term and explanation from the text of a term in file
+     * @param result the lines of the term in the file
+     * @return The term and explanation from the file
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    private static Term getTermFromText(String result) throws IllegalArgumentException {
+        String term = result.substring(result.indexOf('<') + 1, result.indexOf('>'));
+        String closingTerm = result.substring(result.indexOf("</") + 2, result.lastIndexOf('>'));
+
+        if (!term.equals(closingTerm)) {
+            throw new IllegalArgumentException("Invalid file format");
+        }
+
+        String explanation = result.substring(result.indexOf('>') + 1, result.indexOf("</")).trim();
+
+        return new Term(term, explanation);
+    }
+
+    /**
+     * Add term to the dictionary
+     * @param term term to add
+     * @param explanation term explanation
+     * @throws TermExistsException The term already exists
+     */
+    public void addTerm(String term, String explanation) throws TermExistsException {
+        addTerm(new Term(term, explanation));
+    }
+
+    /**
+     * Add term to the dictionary
+     * @param term term to add
+     * @throws TermExistsException The term already exists
+     */
+    public void addTerm(Term term) throws TermExistsException {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        if (null != dictionary.putIfAbsent(term)) {
+            if (0 != startTime) {
+                METRICS.record(DictionaryMetrics.Operation.ADD_TERM, startTime, false);
+            }
+            throw new TermExistsException(term.getTerm());
+        }
+
+        fireTermAdded(term);
+        if (0 != startTime) {
+            METRICS.record(DictionaryMetrics.Operation.ADD_TERM, startTime, true);
+        }
+    }
+
+    /**
+     * Update existing dictionary term
+     * @param term term to update
+     * @param explanation new explanation
+     * @throws TermNotExistsException thrown when the term not exists
+     */
+    public void updateTerm(String term, String explanation) throws TermNotExistsException {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+
+        // Replace the term in place, the key stays the same
+        Term newTerm = new Term(term, explanation);
+        Term oldTerm = dictionary.replace(newTerm);
+        if (null == oldTerm) {
+            if (0 != startTime) {
+                METRICS.record(DictionaryMetrics.Operation.UPDATE_TERM, startTime, false);
+            }
+            throw new TermNotExistsException(term);
+        }
+
+        fireTermUpdated(oldTerm, newTerm);
+        if (0 != startTime) {
+            METRICS.record(DictionaryMetrics.Operation.UPDATE_TERM, startTime, true);
+        }
+    }
+
+    /**
+     * Update existing dictionary term
+     * @param term term to update
+     * @param explanation new explanation
+     * @throws TermNotExistsException thrown when the term not exists
+     */
+    public void updateTerm(Term term, String explanation) throws TermNotExistsException {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        updateTerm(term.getTerm(), explanation);
+    }
+
+    /**
+     * Remove existing term
+     * @param term term to remove
+     * @throws TermNotExistsException thrown when the term not exists
+     */
+    public void removeTerm(String term) throws TermNotExistsException {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        Term oldTerm = dictionary.remove(term);
+        if (null == oldTerm) {
+            if (0 != startTime) {
+                METRICS.record(DictionaryMetrics.Operation.REMOVE_TERM, startTime, false);
+            }
+            throw new TermNotExistsException(term);
+        }
+
+        fireTermRemoved(oldTerm);
+        if (0 != startTime) {
+            METRICS.record(DictionaryMetrics.Operation.REMOVE_TERM, startTime, true);
+        }
+    }
+
+    /**
+     * Remove existing term
+     * @param term term to remove
+     * @throws TermNotExistsException thrown when the term not exists
+     */
+    public void removeTerm(Term term) throws TermNotExistsException {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        removeTerm(term.getTerm());
+    }
+
+    /**
+     * Apply batch of add, update and remove operations.
+     * The result is as if the operations were applied one after the other, in list order,
+     * but they are sorted by term and merged with the dictionary in a single pass.
+     * Operation that would throw TermExistsException or TermNotExistsException is skipped
+     * and reported, the rest of the batch is still applied.
+     * Listeners are notified after the whole batch is applied
+     * @param operations operations to apply
+     * @return result of the batch, with the failed operations
+     */
+    public BatchResult applyBatch(List<TermOperation> operations) {
+        if (null == operations) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        BatchResult result = new BatchResult(operations.size());
+        List<Term[]> changes = new ArrayList<Term[]>(operations.size());
+
+        // Stable sort, so operations of the same term keep their order
+        IndexedOperation[] order = new IndexedOperation[operations.size()];
+        for (int i = 0; i < order.length; ++i) {
+            TermOperation operation = operations.get(i);
+            if (null == operation) {
+                throw new IllegalArgumentException("null argument");
+            }
+
+            order[i] = new IndexedOperation(i, operation);
+        }
+        Arrays.sort(order, (first, second) -> first.term.compareTo(second.term));
+
+        // Large batch on a persistent map, merge into a new map that is built in linear time
+        boolean isRebuild = dictionary instanceof PersistentTermMap
+                && (long) operations.size() * BATCH_REBUILD_RATIO >= dictionary.size();
+        List<Term> merged = isRebuild ? new ArrayList<Term>(dictionary.size() + operations.size()) : null;
+        Iterator<Term> existing = dictionary.iterator(null);
+        Term nextExisting = (isRebuild && existing.hasNext()) ? existing.next() : null;
+
+        int i = 0;
+        while (i < order.length) {
+            String key = order[i].term;
+
+            Term current;
+            if (isRebuild) {
+                // Copy the untouched terms that come before key
+                while (null != nextExisting && nextExisting.getTerm().compareTo(key) < 0) {
+                    merged.add(nextExisting);
+                    nextExisting = existing.hasNext() ? existing.next() : null;
+                }
+
+                current = null;
+                if (null != nextExisting && nextExisting.getTerm().equals(key)) {
+                    current = nextExisting;
+                    nextExisting = existing.hasNext() ? existing.next() : null;
+                }
+            } else {
+                current = dictionary.get(key);
+            }
+
+            Term original = current;
+            for (; i < order.length && order[i].term.equals(key); ++i) {
+                TermOperation operation = order[i].operation;
+                if ((TermOperation.Type.ADD == operation.getType()) == (null != current)) {
+                    Exception cause = (null == current) ? new TermNotExistsException(key) : new TermExistsException(key);
+                    result.addFailure(order[i].index, operation, cause);
+                    continue;
+                }
+
+                Term changed = (TermOperation.Type.REMOVE == operation.getType())
+                        ? null : new Term(key, operation.getExplanation());
+                changes.add(new Term[] { current, changed });
+                current = changed;
+            }
+
+            if (isRebuild) {
+                if (null != current) {
+                    merged.add(current);
+                }
+            } else if (original != current) {
+                if (null == current) {
+                    dictionary.remove(key);
+                } else if (null == original) {
+                    dictionary.putIfAbsent(current);
+                } else {
+                    dictionary.replace(current);
+                }
+            }
+        }
+
+        if (isRebuild) {
+            while (null != nextExisting) {
+                merged.add(nextExisting);
+                nextExisting = existing.hasNext() ? existing.next() : null;
+            }
+
+            dictionary = new PersistentTermMap(merged.toArray(new Term[0]));
+        }
+
+        for (Term[] change : changes) {
+            if (null == change[0]) {
+                fireTermAdded(change[1]);
+            } else if (null == change[1]) {
+                fireTermRemoved(change[0]);
+            } else {
+                fireTermUpdated(change[0], change[1]);
+            }
+        }
+
+        result.sortFailures();
+        if (0 != startTime) {
+            METRICS.recordBatch(startTime, operations, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get term element, get the term and it's explanation
+     * @param term term to get
+     * @return term object
+     * @throws TermNotExistsException throw when the requested term isn't exists
+     */
+    public Term getTerm(String term) throws TermNotExistsException {
+        Term t = findTerm(term);
+        if (null == t) {
+            throw new TermNotExistsException(term);
+        }
+
+        return t;
+    }
+
+    /**
+     * Find term element, without throwing when it isn't exists
+     * @param term term to find
+     * @return term object, or null if the term isn't exists
+     */
+    @Override
+    public Term findTerm(String term) {
+        long startTime = METRICS.startTime();
+        Term t = dictionary.get(term);
+        if (0 != startTime) {
+            METRICS.record(DictionaryMetrics.Operation.GET_TERM, startTime, null != t);
+        }
+
+        return t;
+    }
+
+    /**
+     * Get the first terms, in sorted order, that start with given prefix.
+     * Takes time proportional to the prefix search and the number of returned terms
+     * @param prefix prefix of the terms to get
+     * @param limit maximum number of terms to return
+     * @return up to limit terms starting with prefix, sorted
+     */
+    public List<Term> getTermsWithPrefix(String prefix, int limit) {
+        if (null == prefix) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        List<Term> result = new ArrayList<Term>();
+
+        // All terms starting with prefix are right after it in the sorted order
+        Iterator<Term> terms = dictionary.iterator(prefix);
+        while (result.size() < limit && terms.hasNext()) {
+            Term term = terms.next();
+            if (!term.getTerm().startsWith(prefix)) {
+                break;
+            }
+
+            result.add(term);
+        }
+
+        return result;
+    }
+
+    /**
+     * Find the terms whose explanation contains the query words.
+     * The words index is built on the first search, and is kept up to date from then on
+     * @param query words to search, separated by spaces or punctuation, case insensitive
+     * @param isMatchAll true to find terms containing all the words,
+     *                   false to find terms containing any of the words
+     * @return the matching terms, sorted
+     */
+    public List<Term> searchExplanations(String query, boolean isMatchAll) {
+        if (null == query) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        return getExplanationIndex().search(query, isMatchAll);
+    }
+
+    /**
+     * Get the explanations index, building it if needed
+     * @return the explanations index
+     */
+    private synchronized ExplanationIndex getExplanationIndex() {
+        if (null == explanationIndex) {
+            // Register first, so changes made while building aren't lost. Every term is indexed
+            // as it is in the dictionary when indexed, so terms changed meanwhile aren't indexed stale
+            ExplanationIndex index = new ExplanationIndex(key -> dictionary.get(key));
+            addTermChangeListener(index);
+            for (Term term : snapshot()) {
+                index.index(term.getTerm());
+            }
+
+            explanationIndex = index;
+        }
+
+        return explanationIndex;
+    }
+
+    /**
+     * Get the terms similar to given term, for suggesting corrections of misspelled terms.
+     * Only the terms whose prefixes are close enough to term are visited
+     * @param term term to find similar terms to
+     * @param maxDistance maximum number of single character insertions,
+     *                    deletions and substitutions between term and the found terms
+     * @return the similar terms, closest first
+     */
+    public List<Term> getSimilarTerms(String term, int maxDistance) {
+        if (null == term || maxDistance < 0) {
+            throw new IllegalArgumentException("Invalid argument");
+        }
+
+        return SimilarTermsSearch.search(dictionary, term, maxDistance);
+    }
+
+    /**
+     * Checks if term exists
+     * @param term term to search
+     * @return true if the term exists, otherwise false
+     */
+    public boolean isTermExists(String term) {
+        long startTime = METRICS.startTime();
+        boolean isExists = null != dictionary.get(term);
+        if (0 != startTime) {
+            METRICS.record(DictionaryMetrics.Operation.GET_TERM, startTime, isExists);
+        }
+
+        return isExists;
+    }
+
+    /**
+     * Get number of terms in the dictionary
+     * @return number of terms
+     */
+    public int size() {
+        return dictionary.size();
+    }
+
+    /**
+     * Get read-only view of the dictionary at this point in time, not affected by later changes.
+     * Takes constant time, except for dictionaries stored in another kind of storage,
+     * like ConcurrentDictionary, whose terms are copied
+     * @return snapshot of the dictionary
+     */
+    public DictionarySnapshot snapshot() {
+        return dictionary.snapshot();
+    }
+
+    /**
+     * Share a single explanation string between all the terms with equal explanations.
+     * Dictionaries with many repeated explanations take less memory afterwards.
+     * The terms stay equal to what they were, so listeners aren't notified
+     * @return number of terms whose explanation was replaced by the shared one
+     */
+    public int deduplicateExplanations() {
+        Map<String, String> explanations = new HashMap<String, String>();
+        ExplanationIndex index = explanationIndex;
+        int count = 0;
+
+        Iterator<Term> terms = dictionary.iterator(null);
+        while (terms.hasNext()) {
+            Term term = terms.next();
+            String shared = explanations.putIfAbsent(term.getExplanation(), term.getExplanation());
+            if (null != shared && shared != term.getExplanation()) {
+                Term sharedTerm = term.withExplanation(shared);
+                if (dictionary.replace(term, sharedTerm)) {
+                    ++count;
+                    if (null != index) {
+                        index.replaceEqual(sharedTerm);
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Export dictionary to file
+     * @param file File to export the file
+     * @throws IOException thrown in case of file error
+     */
+    public void exportToFile(FileWriter file) throws IOException {
+        long startTime = METRICS.startTime();
+        long termsCount = 0;
+        long charsCount = 0;
+        for (Term term : this) {
+            String line = String.format("<%s>%s</%s>\n", term.getTerm(), term.getExplanation(), term.getTerm());
+            file.write(line);
+            if (0 != startTime) {
+                ++termsCount;
+                charsCount += line.length();
+            }
+        }
+
+        if (0 != startTime) {
+            METRICS.recordExport(startTime, termsCount, charsCount);
+        }
+    }
+
+    /**
+     * Export dictionary to file, the file is written using FILE_CHARSET
+     * @param filePath path of the file to export to, overwritten if exists
+     * @throws IOException thrown in case of file error
+     */
+    public void exportToFile(Path filePath) throws IOException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        long startTime = METRICS.startTime();
+        long termsCount = 0;
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DictionaryFileWriter writer = new DictionaryFileWriter(channel, FILE_CHARSET)) {
+            for (Term term : this) {
+                writer.writeTerm(term);
+                ++termsCount;
+            }
+        }
+
+        if (0 != startTime) {
+            METRICS.recordExport(startTime, termsCount, Files.size(filePath));
+        }
+    }
+
+    /**
+     * Register listener to be notified on every term change
+     * @param listener listener to register
+     */
+    public void addTermChangeListener(TermChangeListener listener) {
+        if (null == listener) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister term change listener
+     * @param listener listener to unregister
+     */
+    public void removeTermChangeListener(TermChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notify listeners that term was added
+     * @param term the added term
+     */
+    protected void fireTermAdded(Term term) {
+        for (TermChangeListener listener : listeners) {
+            listener.termAdded(term);
+        }
+    }
+
+    /**
+     * Notify listeners that term was updated
+     * @param oldTerm the term before the update
+     * @param newTerm the term after the update
+     */
+    protected void fireTermUpdated(Term oldTerm, Term newTerm) {
+        for (TermChangeListener listener : listeners) {
+            listener.termUpdated(oldTerm, newTerm);
+        }
+    }
+
+    /**
+     * Notify listeners that term was removed
+     * @param term the removed term
+     */
+    protected void fireTermRemoved(Term term) {
+        for (TermChangeListener listener : listeners) {
+            listener.termRemoved(term);
+        }
+    }
+
+    /**
+     * Implement dictionary iterator.
+     * The iterator iterates the terms as they were when it was created,
+     * so the dictionary may be changed during the iteration
+     * @return iterator to dictionary items
+     */
+    @Override
+    public Iterator<Term> iterator() {
+        Iterator<Term> terms = dictionary.iterator(null);
+
+        // Removing through the iterator must notify the listeners as well
+        return new Iterator<Term>() {
+            private Term current;
+
+            @Override
+            public boolean hasNext() {
+                return terms.hasNext();
+            }
+
+            @Override
+            public Term next() {
+                current = terms.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (null == current) {
+                    throw new IllegalStateException();
+                }
+
+                Term removed = dictionary.remove(current.getTerm());
+                current = null;
+                if (null != removed) {
+                    fireTermRemoved(removed);
+                }
+            }
+        };
+    }
+
+    /**
+     * Operation of a batch, with its index in the batch
+     */
+    private static class IndexedOperation {
+        final int index;
+        final TermOperation operation;
+        final String term;
+
+        /**
+         * Initialize indexed operation
+         * @param index index of the operation in the batch
+         * @param operation the operation
+         */
+        IndexedOperation(int index, TermOperation operation) {
+            this.index = index;
+            this.operation = operation;
+            term = operation.getTerm();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dictionary;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming parser of the dictionary file format.
+ * The file format is:
+ * <term1>explanation</term1>
+ * <term2>
+ * multi line
+ * explanation
+ * </term2>
+ * ...
+ * Only whitespace may appear between the terms.
+ * The input is read in one forward pass, every character is visited once.
+ */
+public class DictionaryFileParser {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int END_OF_INPUT = -1;
+
+    private final Reader input;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private long readCount;
+    private final StringBuilder termBuilder;
+    private final StringBuilder explanationBuilder;
+
+    /**
+     * Initialize parser that reads from given input
+     * @param input where to read the dictionary from
+     */
+    public DictionaryFileParser(Reader input) {
+        if (null == input) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        this.input = input;
+        buffer = new char[BUFFER_SIZE];
+        position = 0;
+        limit = 0;
+        readCount = 0;
+        termBuilder = new StringBuilder();
+        explanationBuilder = new StringBuilder();
+    }
+
+    /**
+     * Read the next term from the input
+     * @return the next term, or null if there are no more terms
+     * @throws IOException thrown in case of read error
+     * @throws IllegalArgumentException thrown when the input is with invalid format
+     */
+    public Term nextTerm() throws IOException, IllegalArgumentException {
+        // Only whitespace may separate the terms
+        int c = read();
+        while (END_OF_INPUT != c && '<' != c) {
+            if (!Character.isWhitespace(c)) {
+                throw new IllegalArgumentException("Invalid file format");
+            }
+
+            c = read();
+        }
+
+        if (END_OF_INPUT == c) {
+            return null;
+        }
+
+        // Read the term up to the end of the opening tag
+        termBuilder.setLength(0);
+        c = read();
+        while (END_OF_INPUT != c && '>' != c) {
+            termBuilder.append((char) c);
+            c = read();
+        }
+
+        if (END_OF_INPUT == c) {
+            throw new IllegalArgumentException("Invalid file format");
+        }
+
+        // Read the explanation up to the closing tag
+        explanationBuilder.setLength(0);
+        c = read();
+        while (true) {
+            if (END_OF_INPUT == c) {
+                throw new IllegalArgumentException("Invalid file format");
+            }
+
+            if ('<' == c) {
+                c = read();
+                if ('/' == c) {
+                    break;
+                }
+
+                explanationBuilder.append('<');
+                continue;
+            }
+
+            explanationBuilder.append((char) c);
+            c = read();
+        }
+
+        // Match the closing tag against the term, char by char
+        int termLength = termBuilder.length();
+        int matched = 0;
+        c = read();
+        while (END_OF_INPUT != c && '>' != c) {
+            if (matched >= termLength || termBuilder.charAt(matched) != c) {
+                throw new IllegalArgumentException("Invalid file format");
+            }
+
+            ++matched;
+            c = read();
+        }
+
+        if (END_OF_INPUT == c || matched != termLength) {
+            throw new IllegalArgumentException("Invalid file format");
+        }
+
+        return new Term(termBuilder.toString(), explanationBuilder.toString().trim());
+    }
+
+    /**
+     * Get how much of the input was read
+     * @return number of characters read from the input
+     */
+    public long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * Read the next character of the input
+     * @return the next character, or END_OF_INPUT
+     * @throws IOException thrown in case of read error
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = input.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return END_OF_INPUT;
+            }
+
+            readCount += limit;
+        }
+
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,134 @@
+package dictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * Writes terms in the dictionary file format to a file channel.
+ * The terms are encoded into a large direct buffer which is written
+ * to the channel only when it fills up, so a full export takes a
+ * small number of big writes.
+ */
+public class DictionaryFileWriter implements Closeable {
+    private static final int BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final int STAGING_SIZE = 8 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer;
+    private final char[] staging;
+    private final CharBuffer stagingBuffer;
+
+    /**
+     * Initialize writer to given channel
+     * @param channel where to write the terms, closed when the writer is closed
+     * @param charset the file charset
+     */
+    public DictionaryFileWriter(FileChannel channel, Charset charset) {
+        if (null == channel || null == charset) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        this.channel = channel;
+        encoder = charset.newEncoder();
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        staging = new char[STAGING_SIZE];
+        stagingBuffer = CharBuffer.wrap(staging);
+    }
+
+    /**
+     * Write term to the file
+     * @param term term to write
+     * @throws IOException thrown in case of file error
+     */
+    public void writeTerm(Term term) throws IOException {
+        write("<");
+        write(term.getTerm());
+        write(">");
+        write(term.getExplanation());
+        write("</");
+        write(term.getTerm());
+        write(">\n");
+    }
+
+    /**
+     * Encode string into the buffer
+     * @param str string to encode
+     * @throws IOException thrown in case of file error
+     */
+    private void write(String str) throws IOException {
+        int length = str.length();
+        int offset = 0;
+        while (offset < length) {
+            // Copy the next part of the string to the staging buffer
+            int count = Math.min(STAGING_SIZE - stagingBuffer.position(), length - offset);
+            str.getChars(offset, offset + count, staging, stagingBuffer.position());
+            stagingBuffer.position(stagingBuffer.position() + count);
+            offset += count;
+
+            encodeStaging(false);
+        }
+    }
+
+    /**
+     * Encode the staging buffer content into the buffer,
+     * flushing the buffer to the channel when it fills up
+     * @param isEndOfInput true if no more characters will be written
+     * @throws IOException thrown in case of file error
+     */
+    private void encodeStaging(boolean isEndOfInput) throws IOException {
+        stagingBuffer.flip();
+        while (true) {
+            CoderResult result = encoder.encode(stagingBuffer, buffer, isEndOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+
+            if (result.isUnderflow()) {
+                break;
+            }
+
+            flushBuffer();
+        }
+
+        // Keep characters the encoder couldn't consume yet (split surrogate pair)
+        stagingBuffer.compact();
+    }
+
+    /**
+     * Write the buffer content to the channel
+     * @throws IOException thrown in case of file error
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Write all pending data and close the channel
+     * @throws IOException thrown in case of file error
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            encodeStaging(true);
+            while (encoder.flush(buffer).isOverflow()) {
+                flushBuffer();
+            }
+
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package dictionary;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of dictionary changes.
+ * The dictionary is loaded from a base file, a snapshot or a text dictionary file,
+ * and the journal of the changes made since the base was written is replayed on it.
+ * Every later add, update and remove appends a record to the journal, so saving
+ * costs as much as the change and not as the whole dictionary.
+ *
+ * Records are written and forced to disk by a background thread. Records that
+ * are appended while the disk is being forced are forced together in the next
+ * round (group commit). sync() waits until every record appended so far is durable.
+ *
+ * compact() folds the journal into a new base file in the background.
+ *
+ * Record format: payload length (int), CRC32 of the payload (int), type (byte),
+ * term length (int), term UTF-8 bytes, and for add and update the explanation
+ * length (int) and explanation UTF-8 bytes. A torn record at the end of the
+ * journal, left by a crash in the middle of a write, is discarded on replay.
+ */
+public class DictionaryJournal implements TermChangeListener, Closeable {
+    private static final byte RECORD_ADD = 1;
+    private static final byte RECORD_UPDATE = 2;
+    private static final byte RECORD_REMOVE = 3;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Dictionary dictionary;
+    private final Path basePath;
+    private final Path journalPath;
+    private final Path compactingPath;
+    private final boolean isTextBase;
+    private FileChannel channel;
+
+    private ByteArrayOutputStream pending;
+    private ByteArrayOutputStream writing;
+    private final DataOutputStream record;
+    private final ByteArrayOutputStream recordBytes;
+    private final ByteBuffer recordHeader;
+    private final CRC32 checksum;
+    private long appendedCount;
+    private long durableCount;
+    private IOException failure;
+    private boolean isClosed;
+    private final Thread committer;
+    private Thread compactor;
+    private IOException compactionFailure;
+
+    /**
+     * Initialize journal of loaded dictionary
+     * @param dictionary dictionary loaded from the base file and the journal
+     * @param basePath path of the base file
+     * @param journalPath path of the journal file
+     * @param isTextBase true if the base file is a text dictionary file, otherwise it is a snapshot
+     * @throws IOException thrown in case of file error
+     */
+    private DictionaryJournal(Dictionary dictionary, Path basePath, Path journalPath, boolean isTextBase)
+            throws IOException {
+        this.dictionary = dictionary;
+        this.basePath = basePath;
+        this.journalPath = journalPath;
+        this.isTextBase = isTextBase;
+        compactingPath = siblingPath(journalPath, COMPACTING_SUFFIX);
+        channel = openJournal(journalPath);
+
+        pending = new ByteArrayOutputStream(BUFFER_SIZE);
+        writing = new ByteArrayOutputStream(BUFFER_SIZE);
+        recordBytes = new ByteArrayOutputStream();
+        record = new DataOutputStream(recordBytes);
+        recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        checksum = new CRC32();
+
+        committer = new Thread(this::commitRecords, "dictionary-journal-" + journalPath.getFileName());
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Load dictionary from base file and journal, and journal its changes from now on.
+     * A base file that doesn't exist is an empty dictionary, and compaction writes it as snapshot
+     * @param basePath path of the base file, a snapshot or a text dictionary file
+     * @param journalPath path of the journal file, created if not exists
+     * @return the journal, its dictionary is available by getDictionary
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the base file is with invalid format
+     */
+    public static DictionaryJournal open(Path basePath, Path journalPath) throws IOException, IllegalArgumentException {
+        if (null == basePath || null == journalPath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        Dictionary dictionary = new Dictionary();
+        boolean isTextBase = false;
+        if (Files.exists(basePath)) {
+            isTextBase = !DictionarySnapshotFile.isSnapshotFile(basePath);
+            dictionary = isTextBase
+                    ? Dictionary.createDictionaryFromFile(basePath)
+                    : DictionarySnapshotFile.read(basePath);
+        }
+
+        // Journal left by compaction that didn't finish is older than the journal itself
+        Path compactingPath = siblingPath(journalPath, COMPACTING_SUFFIX);
+        boolean isCompactionUnfinished = Files.exists(compactingPath);
+        if (isCompactionUnfinished) {
+            replay(dictionary, compactingPath);
+        }
+
+        replay(dictionary, journalPath);
+
+        DictionaryJournal journal = new DictionaryJournal(dictionary, basePath, journalPath, isTextBase);
+        dictionary.addTermChangeListener(journal);
+
+        if (isCompactionUnfinished) {
+            journal.finishCompaction(dictionary);
+        }
+
+        return journal;
+    }
+
+    /**
+     * Get the journaled dictionary
+     * @return dictionary
+     */
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public void termAdded(Term term) {
+        append(RECORD_ADD, term);
+    }
+
+    @Override
+    public void termUpdated(Term oldTerm, Term newTerm) {
+        append(RECORD_UPDATE, newTerm);
+    }
+
+    @Override
+    public void termRemoved(Term term) {
+        append(RECORD_REMOVE, term);
+    }
+
+    /**
+     * Wait until every change made so far is durable
+     * @throws IOException thrown in case of journal write error
+     */
+    public synchronized void sync() throws IOException {
+        long target = appendedCount;
+        while (durableCount < target) {
+            if (null != failure) {
+                throw failure;
+            }
+
+            if (isClosed) {
+                throw new IOException("Journal is closed");
+            }
+
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the journal", e);
+            }
+        }
+    }
+
+    /**
+     * Fold the journal into new base file, in the background.
+     * The dictionary snapshot is taken on the calling thread, which must be the one that changes the dictionary.
+     * Waits for the previous compaction to finish, and throws its failure if it failed.
+     * The journal of a failed compaction is kept, and folded by the next one
+     * @throws IOException thrown in case of file error
+     */
+    public void compact() throws IOException {
+        waitForCompaction();
+
+        DictionarySnapshot snapshot;
+        synchronized (this) {
+            // Start new journal, the base file written from the snapshot replaces the old one
+            sync();
+            channel.close();
+            try {
+                if (Files.exists(compactingPath)) {
+                    // Left by compaction that failed, the new base must include its records too
+                    foldIntoCompacting();
+                } else {
+                    Files.move(journalPath, compactingPath, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                channel = openJournal(journalPath);
+            }
+
+            snapshot = dictionary.snapshot();
+        }
+
+        compactor = new Thread(() -> {
+            try {
+                finishCompaction(Dictionary.createDictionaryFromSnapshot(snapshot));
+            } catch (IOException e) {
+                compactionFailure = e;
+            }
+        }, "dictionary-compactor-" + journalPath.getFileName());
+        compactor.start();
+    }
+
+    /**
+     * Wait for the compaction in progress to finish
+     * @throws IOException thrown when the compaction failed
+     */
+    public void waitForCompaction() throws IOException {
+        if (null == compactor) {
+            return;
+        }
+
+        try {
+            compactor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for compaction", e);
+        }
+
+        compactor = null;
+        if (null != compactionFailure) {
+            IOException e = compactionFailure;
+            compactionFailure = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for the pending changes and the compaction, and close the journal file.
+     * The dictionary isn't journaled anymore
+     * @throws IOException thrown in case of file error
+     */
+    @Override
+    public void close() throws IOException {
+        dictionary.removeTermChangeListener(this);
+
+        try {
+            sync();
+            waitForCompaction();
+        } finally {
+            synchronized (this) {
+                isClosed = true;
+                notifyAll();
+            }
+
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            channel.close();
+        }
+    }
+
+    /**
+     * Write base file of given terms, and delete the journal they include
+     * @param base dictionary to write as the base
+     * @throws IOException thrown in case of file error
+     */
+    private void finishCompaction(Dictionary base) throws IOException {
+        Path temporaryPath = siblingPath(basePath, TEMPORARY_SUFFIX);
+        if (isTextBase) {
+            base.exportToFile(temporaryPath);
+        } else {
+            DictionarySnapshotFile.write(base, temporaryPath);
+        }
+
+        try (FileChannel file = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+
+        Files.move(temporaryPath, basePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(compactingPath);
+    }
+
+    /**
+     * Append the journal to the journal of compaction that failed, and start new journal.
+     * The two are joined aside and moved into place, so a crash at any point leaves
+     * every record in the compacting journal or in the journal
+     * @throws IOException thrown in case of file error
+     */
+    private void foldIntoCompacting() throws IOException {
+        Path temporaryPath = siblingPath(compactingPath, TEMPORARY_SUFFIX);
+        try (FileChannel out = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path path : List.of(compactingPath, journalPath)) {
+                try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+
+            out.force(true);
+        }
+
+        Files.move(temporaryPath, compactingPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(journalPath);
+    }
+
+    /**
+     * Append change record, to be written by the committer
+     * @param type record type
+     * @param term the changed term
+     */
+    private synchronized void append(byte type, Term term) {
+        if (isClosed) {
+            return;
+        }
+
+        try {
+            recordBytes.reset();
+            record.writeByte(type);
+            writeString(term.getTerm());
+            if (RECORD_REMOVE != type) {
+                writeString(term.getExplanation());
+            }
+
+            checksum.reset();
+            checksum.update(recordBytes.toByteArray());
+
+            recordHeader.clear();
+            recordHeader.putInt(recordBytes.size()).putInt((int) checksum.getValue());
+            pending.write(recordHeader.array());
+            recordBytes.writeTo(pending);
+        } catch (IOException e) {
+            // Writing to memory never fails
+            throw new IllegalStateException(e);
+        }
+
+        ++appendedCount;
+        notifyAll();
+    }
+
+    /**
+     * Write string to the current record
+     * @param str string to write
+     * @throws IOException never thrown, the record is in memory
+     */
+    private void writeString(String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        record.writeInt(bytes.length);
+        record.write(bytes);
+    }
+
+    /**
+     * Committer thread body, writes and forces the appended records
+     */
+    private void commitRecords() {
+        while (true) {
+            long target;
+            FileChannel file;
+            synchronized (this) {
+                while (durableCount == appendedCount && !isClosed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (durableCount == appendedCount || null != failure) {
+                    return;
+                }
+
+                // Take everything appended so far, new records go to the other buffer
+                ByteArrayOutputStream records = pending;
+                pending = writing;
+                writing = records;
+                target = appendedCount;
+                file = channel;
+            }
+
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(writing.toByteArray());
+                while (buffer.hasRemaining()) {
+                    file.write(buffer);
+                }
+
+                file.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+
+                return;
+            }
+
+            writing.reset();
+            synchronized (this) {
+                durableCount = target;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Apply journal records to dictionary.
+     * The journal is truncated after its last complete record
+     * @param dictionary dictionary to apply the records to
+     * @param journalPath path of the journal file, ignored if not exists
+     * @throws IOException thrown in case of file error
+     */
+    private static void replay(Dictionary dictionary, Path journalPath) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+
+        // Last record of every term wins, null for removed term
+        Map<String, String> changes = new TreeMap<String, String>();
+        long validLength = 0;
+        CRC32 checksum = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(journalPath), BUFFER_SIZE))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int expected = in.readInt();
+                    if (length <= 0) {
+                        break;
+                    }
+
+                    payload = in.readNBytes(length);
+                    checksum.reset();
+                    checksum.update(payload);
+                    if (payload.length != length || (int) checksum.getValue() != expected) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+
+                DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = recordIn.readByte();
+                String term = readString(recordIn);
+                changes.put(term, (RECORD_REMOVE == type) ? null : readString(recordIn));
+                validLength += RECORD_HEADER_SIZE + payload.length;
+            }
+        }
+
+        try (FileChannel file = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+            if (file.size() > validLength) {
+                file.truncate(validLength);
+                file.force(false);
+            }
+        }
+
+        // The records may overlap the base, so apply them as the state of the term
+        List<TermOperation> operations = new ArrayList<TermOperation>(changes.size());
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            boolean isExists = dictionary.isTermExists(change.getKey());
+            if (null == change.getValue()) {
+                if (isExists) {
+                    operations.add(TermOperation.remove(change.getKey()));
+                }
+            } else if (isExists) {
+                operations.add(TermOperation.update(change.getKey(), change.getValue()));
+            } else {
+                operations.add(TermOperation.add(change.getKey(), change.getValue()));
+            }
+        }
+
+        dictionary.applyBatch(operations);
+    }
+
+    /**
+     * Read string of a record
+     * @param in record input
+     * @return the string
+     * @throws IOException thrown when the record is corrupted
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new IOException("Corrupted journal record");
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Open journal file for appending
+     * @param journalPath path of the journal file
+     * @return the journal channel
+     * @throws IOException thrown in case of file error
+     */
+    private static FileChannel openJournal(Path journalPath) throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Get path next to given path, with a suffix
+     * @param path the path
+     * @param suffix suffix to add to the file name
+     * @return the sibling path
+     */
+    private static Path siblingPath(Path path, String suffix) {
+        Path name = Paths.get(path.getFileName().toString() + suffix);
+        Path parent = path.toAbsolutePath().getParent();
+
+        return (null == parent) ? name : parent.resolve(name);
+    }
+}
@@ -0,0 +1,476 @@
+package dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Merge and diff of dictionary files, with bounded memory.
+ * Sources are text dictionary files or snapshot files. Text files are parsed
+ * into sorted runs on disk, each run holds terms up to the run size, and all
+ * the runs and snapshots are then merged in a single k-way pass. Memory is
+ * bounded by the run size and the number of runs, not by the dictionaries size.
+ *
+ * A term that appears more than once, in several sources or in the same source,
+ * is resolved by the conflict policy. Sources are ordered as given, and every
+ * source in file order. Appearances with the same explanation aren't a conflict.
+ */
+public class DictionaryMerger {
+    /**
+     * How to resolve a term that appears with different explanations
+     */
+    public enum ConflictPolicy {
+        // Keep the explanation of the first appearance
+        FIRST_WINS,
+        // Keep the explanation of the last appearance
+        LAST_WINS,
+        // Throw IllegalArgumentException
+        FAIL,
+        // Keep all the different explanations, one after the other in separate lines
+        CONCATENATE
+    }
+
+    private static final long DEFAULT_MAX_RUN_BYTES = 64 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    // Estimated heap bytes of a run term besides its characters
+    private static final int TERM_OVERHEAD = 96;
+    private static final String TEMPORARY_SUFFIX = ".merging";
+
+    private final ConflictPolicy policy;
+    private long maxRunBytes;
+    private Path temporaryDirectory;
+
+    /**
+     * Initialize merger
+     * @param policy how to resolve conflicting terms
+     */
+    public DictionaryMerger(ConflictPolicy policy) {
+        if (null == policy) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        this.policy = policy;
+        maxRunBytes = DEFAULT_MAX_RUN_BYTES;
+    }
+
+    /**
+     * Set the heap memory to use for sorting a run of a text source
+     * @param maxRunBytes estimated bytes of the terms of a run
+     */
+    public void setMaxRunBytes(long maxRunBytes) {
+        if (maxRunBytes <= 0) {
+            throw new IllegalArgumentException("maxRunBytes must be positive");
+        }
+
+        this.maxRunBytes = maxRunBytes;
+    }
+
+    /**
+     * Set where to write the sorted runs
+     * @param temporaryDirectory directory of the runs, null for the default temporary directory
+     */
+    public void setTemporaryDirectory(Path temporaryDirectory) {
+        this.temporaryDirectory = temporaryDirectory;
+    }
+
+    /**
+     * Merge dictionary files into a text dictionary file, in the format of Dictionary.exportToFile
+     * @param sources paths of the dictionary files, text or snapshot, in precedence order
+     * @param output path of the merged file, overwritten if exists, may be one of the sources
+     * @return number of terms in the merged file
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when a source is with invalid format,
+     *                                  or on conflict with the FAIL policy
+     */
+    public long merge(List<Path> sources, Path output) throws IOException, IllegalArgumentException {
+        if (null == sources || null == output) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        for (Path source : sources) {
+            if (null == source) {
+                throw new IllegalArgumentException("null argument");
+            }
+        }
+
+        // Written aside and moved into place, so the output may be one of the sources
+        Path temporaryOutput = output.resolveSibling(output.getFileName() + TEMPORARY_SUFFIX);
+        long count = 0;
+        List<Path> runs = new ArrayList<Path>();
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryOutput, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DictionaryFileWriter writer = new DictionaryFileWriter(channel, Dictionary.FILE_CHARSET);
+                 MergedReader merged = open(sources, runs)) {
+                Term term = merged.next();
+                while (null != term) {
+                    writer.writeTerm(term);
+                    ++count;
+                    term = merged.next();
+                }
+            }
+
+            Files.move(temporaryOutput, output, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryOutput);
+            deleteRuns(runs);
+        }
+
+        return count;
+    }
+
+    /**
+     * Compare two dictionary files, reporting their differences in term order.
+     * Terms only in the new dictionary are added, terms only in the old one are removed,
+     * and terms with different explanations are updated
+     * @param oldSource path of the old dictionary file, text or snapshot
+     * @param newSource path of the new dictionary file, text or snapshot
+     * @param listener gets the differences
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when a source is with invalid format,
+     *                                  or on conflict with the FAIL policy
+     */
+    public void diff(Path oldSource, Path newSource, TermChangeListener listener)
+            throws IOException, IllegalArgumentException {
+        if (null == oldSource || null == newSource || null == listener) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        List<Path> runs = new ArrayList<Path>();
+        try (MergedReader oldTerms = open(List.of(oldSource), runs);
+             MergedReader newTerms = open(List.of(newSource), runs)) {
+            Term oldTerm = oldTerms.next();
+            Term newTerm = newTerms.next();
+            while (null != oldTerm || null != newTerm) {
+                int cmp = (null == oldTerm) ? 1 : (null == newTerm) ? -1 : oldTerm.compareTo(newTerm);
+                if (cmp < 0) {
+                    listener.termRemoved(oldTerm);
+                    oldTerm = oldTerms.next();
+                } else if (cmp > 0) {
+                    listener.termAdded(newTerm);
+                    newTerm = newTerms.next();
+                } else {
+                    if (!oldTerm.getExplanation().equals(newTerm.getExplanation())) {
+                        listener.termUpdated(oldTerm, newTerm);
+                    }
+
+                    oldTerm = oldTerms.next();
+                    newTerm = newTerms.next();
+                }
+            }
+        } finally {
+            deleteRuns(runs);
+        }
+    }
+
+    /**
+     * Open merged reader of the sources, creating the runs of the text sources
+     * @param sources paths of the dictionary files, in precedence order
+     * @param runs gets the paths of the created runs, to delete when done
+     * @return reader of the merged terms
+     * @throws IOException thrown in case of file error
+     */
+    private MergedReader open(List<Path> sources, List<Path> runs) throws IOException {
+        MergedReader merged = new MergedReader(policy);
+        try {
+            for (Path source : sources) {
+                if (DictionarySnapshotFile.isSnapshotFile(source)) {
+                    DictionarySnapshotFile.EntryReader in = new DictionarySnapshotFile.EntryReader(source);
+                    try {
+                        merged.add(new EntriesReader(in, in.readHeader()));
+                    } catch (IOException | RuntimeException e) {
+                        in.close();
+                        throw e;
+                    }
+                } else {
+                    for (Run run : createRuns(source, runs)) {
+                        merged.add(new EntriesReader(new DictionarySnapshotFile.EntryReader(run.path), run.count));
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            merged.close();
+            throw e;
+        }
+
+        return merged;
+    }
+
+    /**
+     * Parse text dictionary file into sorted runs
+     * @param source path of the text dictionary file
+     * @param runs gets the paths of the created runs
+     * @return the runs, in file order
+     * @throws IOException thrown in case of file error
+     */
+    private List<Run> createRuns(Path source, List<Path> runs) throws IOException {
+        List<Run> created = new ArrayList<Run>();
+        List<Term> terms = new ArrayList<Term>();
+        long bytes = 0;
+
+        try (Reader in = Files.newBufferedReader(source, Dictionary.FILE_CHARSET)) {
+            DictionaryFileParser parser = new DictionaryFileParser(in);
+            Term term = parser.nextTerm();
+            while (null != term) {
+                terms.add(term);
+                bytes += TERM_OVERHEAD + 2L * (term.getTerm().length() + term.getExplanation().length());
+                if (bytes >= maxRunBytes) {
+                    created.add(writeRun(terms, runs));
+                    terms.clear();
+                    bytes = 0;
+                }
+
+                term = parser.nextTerm();
+            }
+        }
+
+        if (!terms.isEmpty() || created.isEmpty()) {
+            created.add(writeRun(terms, runs));
+        }
+
+        return created;
+    }
+
+    /**
+     * Sort terms and write them as a run
+     * @param terms terms to write, sorted in place
+     * @param runs gets the path of the run
+     * @return the run
+     * @throws IOException thrown in case of file error
+     */
+    private Run writeRun(List<Term> terms, List<Path> runs) throws IOException {
+        // Stable sort, so appearances of the same term keep the file order
+        terms.sort(Comparator.naturalOrder());
+
+        Path path = (null == temporaryDirectory)
+                ? Files.createTempFile("dictionary-run", ".tmp")
+                : Files.createTempFile(temporaryDirectory, "dictionary-run", ".tmp");
+        runs.add(path);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path), BUFFER_SIZE))) {
+            for (Term term : terms) {
+                writeString(out, term.getTerm());
+                writeString(out, term.getExplanation());
+            }
+        }
+
+        return new Run(path, terms.size());
+    }
+
+    /**
+     * Write length prefixed UTF-8 string, as snapshot entries are written
+     * @param out where to write
+     * @param str string to write
+     * @throws IOException thrown in case of file error
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Delete run files
+     * @param runs paths of the runs
+     * @throws IOException thrown in case of file error
+     */
+    private static void deleteRuns(List<Path> runs) throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    /**
+     * Sorted run of a text source
+     */
+    private static class Run {
+        final Path path;
+        final int count;
+
+        Run(Path path, int count) {
+            this.path = path;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Reader of sorted terms
+     */
+    private interface TermReader extends Closeable {
+        /**
+         * Read the next term
+         * @return the next term, or null at the end
+         * @throws IOException thrown in case of file error
+         */
+        Term next() throws IOException;
+    }
+
+    /**
+     * Reader of the terms of a snapshot or a run
+     */
+    private static class EntriesReader implements TermReader {
+        private final DictionarySnapshotFile.EntryReader in;
+        private int remaining;
+
+        /**
+         * Initialize reader
+         * @param in entries reader positioned at the first entry
+         * @param count number of entries
+         */
+        EntriesReader(DictionarySnapshotFile.EntryReader in, int count) {
+            this.in = in;
+            remaining = count;
+        }
+
+        @Override
+        public Term next() throws IOException {
+            if (0 == remaining) {
+                return null;
+            }
+
+            --remaining;
+            String term = in.readString();
+
+            return new Term(term, in.readString());
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * K-way merge of sorted readers, resolving repeated terms by the conflict policy
+     */
+    private static class MergedReader implements TermReader {
+        private final ConflictPolicy policy;
+        private final List<TermReader> readers;
+        private final PriorityQueue<Head> heads;
+
+        /**
+         * Next term of a reader
+         */
+        private static class Head {
+            final Term term;
+            final int rank;
+            final TermReader reader;
+
+            Head(Term term, int rank, TermReader reader) {
+                this.term = term;
+                this.rank = rank;
+                this.reader = reader;
+            }
+        }
+
+        /**
+         * Initialize merge without readers
+         * @param policy how to resolve conflicting terms
+         */
+        MergedReader(ConflictPolicy policy) {
+            this.policy = policy;
+            readers = new ArrayList<TermReader>();
+            // Equal terms come out in readers order, and a reader gives them in its order
+            heads = new PriorityQueue<Head>((first, second) -> {
+                int cmp = first.term.compareTo(second.term);
+                return (0 != cmp) ? cmp : Integer.compare(first.rank, second.rank);
+            });
+        }
+
+        /**
+         * Add reader after the readers added before
+         * @param reader the reader, closed with the merge
+         * @throws IOException thrown in case of file error
+         */
+        void add(TermReader reader) throws IOException {
+            readers.add(reader);
+            advance(reader, readers.size() - 1);
+        }
+
+        @Override
+        public Term next() throws IOException {
+            Head head = heads.poll();
+            if (null == head) {
+                return null;
+            }
+
+            advance(head.reader, head.rank);
+            Term first = head.term;
+            if (heads.isEmpty() || !heads.peek().term.getTerm().equals(first.getTerm())) {
+                return first;
+            }
+
+            // Gather the different explanations of all the appearances, in order
+            Set<String> explanations = new LinkedHashSet<String>();
+            explanations.add(first.getExplanation());
+            String last = first.getExplanation();
+            while (!heads.isEmpty() && heads.peek().term.getTerm().equals(first.getTerm())) {
+                Head other = heads.poll();
+                advance(other.reader, other.rank);
+                last = other.term.getExplanation();
+                explanations.add(last);
+            }
+
+            if (1 == explanations.size()) {
+                return first;
+            }
+
+            switch (policy) {
+                case FIRST_WINS:
+                    return first;
+                case LAST_WINS:
+                    return first.withExplanation(last);
+                case CONCATENATE:
+                    return first.withExplanation(String.join("\n", explanations));
+                default:
+                    throw new IllegalArgumentException(
+                            String.format("Conflicting explanations of the term %s", first.getTerm()));
+            }
+        }
+
+        /**
+         * Read the next term of reader into the heads
+         * @param reader the reader
+         * @param rank order of the reader
+         * @throws IOException thrown in case of file error
+         */
+        private void advance(TermReader reader, int rank) throws IOException {
+            Term term = reader.next();
+            if (null != term) {
+                heads.add(new Head(term, rank, reader));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (TermReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+
+            if (null != failure) {
+                throw failure;
+            }
+        }
+    }
+}
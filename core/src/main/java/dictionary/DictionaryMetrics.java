@@ -0,0 +1,459 @@
+package dictionary;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Process wide metrics of the dictionary operations.
+ * Counts the operations and their failures, and records their latencies.
+ * Lookup failure is a miss. Imports and exports also count terms and bytes for throughput.
+ * Every operation is recorded once, the operations of a batch as if they were applied one by one.
+ *
+ * Metrics are disabled by default, enabled by setEnabled or by the dictionary.metrics
+ * system property. When disabled, an operation only checks the flag.
+ * All the counters are LongAdders, so concurrent operations don't contend on them
+ */
+public class DictionaryMetrics implements DictionaryMetricsMBean {
+    /**
+     * Instrumented operation
+     */
+    public enum Operation {
+        GET_TERM,
+        ADD_TERM,
+        UPDATE_TERM,
+        REMOVE_TERM,
+        IMPORT,
+        EXPORT
+    }
+
+    /**
+     * JMX name of the metrics MBean
+     */
+    public static final String OBJECT_NAME = "dictionary:type=DictionaryMetrics";
+
+    private static final DictionaryMetrics INSTANCE = new DictionaryMetrics(Boolean.getBoolean("dictionary.metrics"));
+    private static final Logger LOGGER = Logger.getLogger(DictionaryMetrics.class.getName());
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private volatile boolean isEnabled;
+    private final LongAdder[] counts;
+    private final LongAdder[] failures;
+    private final LatencyHistogram[] latencies;
+    private final LongAdder importedTerms;
+    private final LongAdder importedBytes;
+    private final LongAdder exportedTerms;
+    private final LongAdder exportedBytes;
+    private ScheduledExecutorService logger;
+
+    /**
+     * Initialize metrics
+     * @param isEnabled true to record operations, otherwise false
+     */
+    private DictionaryMetrics(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+
+        int operationsCount = Operation.values().length;
+        counts = new LongAdder[operationsCount];
+        failures = new LongAdder[operationsCount];
+        latencies = new LatencyHistogram[operationsCount];
+        for (int i = 0; i < operationsCount; ++i) {
+            counts[i] = new LongAdder();
+            failures[i] = new LongAdder();
+            latencies[i] = new LatencyHistogram();
+        }
+
+        importedTerms = new LongAdder();
+        importedBytes = new LongAdder();
+        exportedTerms = new LongAdder();
+        exportedBytes = new LongAdder();
+    }
+
+    /**
+     * Get the process metrics
+     * @return metrics instance
+     */
+    public static DictionaryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * Start timing operation
+     * @return start time to pass to the record methods, 0 when the metrics are disabled
+     */
+    long startTime() {
+        return isEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record finished operation
+     * @param operation the operation
+     * @param startTime value of startTime() when the operation started
+     * @param isSuccess false if the operation failed or missed, otherwise true
+     */
+    void record(Operation operation, long startTime, boolean isSuccess) {
+        if (0 == startTime) {
+            return;
+        }
+
+        int i = operation.ordinal();
+        latencies[i].record(System.nanoTime() - startTime);
+        counts[i].increment();
+        if (!isSuccess) {
+            failures[i].increment();
+        }
+    }
+
+    /**
+     * Record finished batch as its operations, every operation with an equal share of the batch time
+     * @param startTime value of startTime() when the batch started
+     * @param operations the operations of the batch
+     * @param result result of the batch, with the failed operations
+     */
+    void recordBatch(long startTime, List<TermOperation> operations, BatchResult result) {
+        if (0 == startTime || operations.isEmpty()) {
+            return;
+        }
+
+        long latency = (System.nanoTime() - startTime) / operations.size();
+        boolean[] isFailed = new boolean[operations.size()];
+        for (BatchResult.Failure failure : result.getFailures()) {
+            isFailed[failure.getIndex()] = true;
+        }
+
+        for (int i = 0; i < isFailed.length; ++i) {
+            int operation = toOperation(operations.get(i).getType()).ordinal();
+            latencies[operation].record(latency);
+            counts[operation].increment();
+            if (isFailed[i]) {
+                failures[operation].increment();
+            }
+        }
+    }
+
+    /**
+     * Get the operation of a batch operation type
+     * @param type type of batch operation
+     * @return the operation
+     */
+    private static Operation toOperation(TermOperation.Type type) {
+        switch (type) {
+            case ADD:
+                return Operation.ADD_TERM;
+            case UPDATE:
+                return Operation.UPDATE_TERM;
+            default:
+                return Operation.REMOVE_TERM;
+        }
+    }
+
+    /**
+     * Record finished dictionary import
+     * @param startTime value of startTime() when the import started
+     * @param termsCount number of imported terms
+     * @param bytesCount number of read bytes, characters for imports from readers, 0 when unknown
+     */
+    void recordImport(long startTime, long termsCount, long bytesCount) {
+        if (0 == startTime) {
+            return;
+        }
+
+        record(Operation.IMPORT, startTime, true);
+        importedTerms.add(termsCount);
+        importedBytes.add(bytesCount);
+    }
+
+    /**
+     * Record finished dictionary export
+     * @param startTime value of startTime() when the export started
+     * @param termsCount number of exported terms
+     * @param bytesCount number of written bytes, characters for exports to writers, 0 when unknown
+     */
+    void recordExport(long startTime, long termsCount, long bytesCount) {
+        if (0 == startTime) {
+            return;
+        }
+
+        record(Operation.EXPORT, startTime, true);
+        exportedTerms.add(termsCount);
+        exportedBytes.add(bytesCount);
+    }
+
+    /**
+     * Get number of finished operations
+     * @param operation the operation
+     * @return operations count
+     */
+    public long getCount(Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+    /**
+     * Get number of failed operations, misses for lookups
+     * @param operation the operation
+     * @return failures count
+     */
+    public long getFailureCount(Operation operation) {
+        return failures[operation.ordinal()].sum();
+    }
+
+    /**
+     * Get latencies of operation
+     * @param operation the operation
+     * @return latencies histogram
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    @Override
+    public long getGetTermCount() {
+        return getCount(Operation.GET_TERM);
+    }
+
+    @Override
+    public long getGetTermMissCount() {
+        return getFailureCount(Operation.GET_TERM);
+    }
+
+    @Override
+    public double getGetTermHitRatio() {
+        long count = getGetTermCount();
+
+        return (0 == count) ? 0 : 1 - (double) getGetTermMissCount() / count;
+    }
+
+    @Override
+    public long getGetTermLatencyP50() {
+        return getLatency(Operation.GET_TERM).getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getGetTermLatencyP99() {
+        return getLatency(Operation.GET_TERM).getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getGetTermLatencyP999() {
+        return getLatency(Operation.GET_TERM).getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getAddTermCount() {
+        return getCount(Operation.ADD_TERM);
+    }
+
+    @Override
+    public long getAddTermFailureCount() {
+        return getFailureCount(Operation.ADD_TERM);
+    }
+
+    @Override
+    public long getAddTermLatencyP50() {
+        return getLatency(Operation.ADD_TERM).getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getAddTermLatencyP99() {
+        return getLatency(Operation.ADD_TERM).getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getUpdateTermCount() {
+        return getCount(Operation.UPDATE_TERM);
+    }
+
+    @Override
+    public long getUpdateTermFailureCount() {
+        return getFailureCount(Operation.UPDATE_TERM);
+    }
+
+    @Override
+    public long getUpdateTermLatencyP50() {
+        return getLatency(Operation.UPDATE_TERM).getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getUpdateTermLatencyP99() {
+        return getLatency(Operation.UPDATE_TERM).getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getRemoveTermCount() {
+        return getCount(Operation.REMOVE_TERM);
+    }
+
+    @Override
+    public long getRemoveTermFailureCount() {
+        return getFailureCount(Operation.REMOVE_TERM);
+    }
+
+    @Override
+    public long getRemoveTermLatencyP50() {
+        return getLatency(Operation.REMOVE_TERM).getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getRemoveTermLatencyP99() {
+        return getLatency(Operation.REMOVE_TERM).getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getImportCount() {
+        return getCount(Operation.IMPORT);
+    }
+
+    @Override
+    public long getImportedTermCount() {
+        return importedTerms.sum();
+    }
+
+    @Override
+    public long getImportedByteCount() {
+        return importedBytes.sum();
+    }
+
+    @Override
+    public double getImportTermsPerSecond() {
+        return perSecond(importedTerms.sum(), Operation.IMPORT);
+    }
+
+    @Override
+    public double getImportBytesPerSecond() {
+        return perSecond(importedBytes.sum(), Operation.IMPORT);
+    }
+
+    @Override
+    public long getExportCount() {
+        return getCount(Operation.EXPORT);
+    }
+
+    @Override
+    public long getExportedTermCount() {
+        return exportedTerms.sum();
+    }
+
+    @Override
+    public long getExportedByteCount() {
+        return exportedBytes.sum();
+    }
+
+    @Override
+    public double getExportTermsPerSecond() {
+        return perSecond(exportedTerms.sum(), Operation.EXPORT);
+    }
+
+    @Override
+    public double getExportBytesPerSecond() {
+        return perSecond(exportedBytes.sum(), Operation.EXPORT);
+    }
+
+    /**
+     * Compute throughput of operation
+     * @param amount amount processed by the operations
+     * @param operation the operation
+     * @return amount per second of operation time
+     */
+    private double perSecond(long amount, Operation operation) {
+        LatencyHistogram latency = getLatency(operation);
+        double seconds = latency.getMean() * latency.getCount() / NANOS_PER_SECOND;
+
+        return (0 == seconds) ? 0 : amount / seconds;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i].reset();
+            failures[i].reset();
+            latencies[i].reset();
+        }
+
+        importedTerms.reset();
+        importedBytes.reset();
+        exportedTerms.reset();
+        exportedBytes.reset();
+    }
+
+    /**
+     * Register the metrics in the platform MBean server, under OBJECT_NAME.
+     * Registering again does nothing
+     * @throws JMException thrown when the registration failed
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already registered
+        }
+    }
+
+    /**
+     * Log the metrics periodically, at INFO level
+     * @param period time between two logs
+     * @param unit unit of period
+     */
+    public synchronized void startLogging(long period, TimeUnit unit) {
+        stopLogging();
+
+        logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dictionary-metrics-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.scheduleAtFixedRate(() -> LOGGER.info(toString()), period, period, unit);
+    }
+
+    /**
+     * Stop the periodic log
+     */
+    public synchronized void stopLogging() {
+        if (null != logger) {
+            logger.shutdown();
+            logger = null;
+        }
+    }
+
+    /**
+     * Get summary of the metrics
+     * @return metrics summary, latencies in microseconds
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("Dictionary metrics:");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram latency = getLatency(operation);
+            summary.append(String.format("%n  %s: count=%d failures=%d p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                    operation, getCount(operation), getFailureCount(operation),
+                    latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(99) / 1e3,
+                    latency.getValueAtPercentile(99.9) / 1e3, latency.getMax() / 1e3));
+        }
+
+        summary.append(String.format("%n  getTerm hit ratio=%.3f", getGetTermHitRatio()));
+        summary.append(String.format("%n  import: %.0f terms/s %.0f bytes/s", getImportTermsPerSecond(),
+                getImportBytesPerSecond()));
+        summary.append(String.format("%n  export: %.0f terms/s %.0f bytes/s", getExportTermsPerSecond(),
+                getExportBytesPerSecond()));
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package dictionary;
+
+/**
+ * JMX view of the dictionary metrics.
+ * Latencies are in nanoseconds
+ */
+public interface DictionaryMetricsMBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean isEnabled);
+
+    long getGetTermCount();
+
+    long getGetTermMissCount();
+
+    double getGetTermHitRatio();
+
+    long getGetTermLatencyP50();
+
+    long getGetTermLatencyP99();
+
+    long getGetTermLatencyP999();
+
+    long getAddTermCount();
+
+    long getAddTermFailureCount();
+
+    long getAddTermLatencyP50();
+
+    long getAddTermLatencyP99();
+
+    long getUpdateTermCount();
+
+    long getUpdateTermFailureCount();
+
+    long getUpdateTermLatencyP50();
+
+    long getUpdateTermLatencyP99();
+
+    long getRemoveTermCount();
+
+    long getRemoveTermFailureCount();
+
+    long getRemoveTermLatencyP50();
+
+    long getRemoveTermLatencyP99();
+
+    long getImportCount();
+
+    long getImportedTermCount();
+
+    long getImportedByteCount();
+
+    double getImportTermsPerSecond();
+
+    double getImportBytesPerSecond();
+
+    long getExportCount();
+
+    long getExportedTermCount();
+
+    long getExportedByteCount();
+
+    double getExportTermsPerSecond();
+
+    double getExportBytesPerSecond();
+
+    void reset();
+}
@@ -0,0 +1,353 @@
+package dictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Headless server of a dictionary over a plain socket, line based protocol.
+ * Every request is a line of tab separated fields, a command and its arguments,
+ * and gets a single response line, in the order the requests were sent.
+ * Clients may send many requests without waiting for the responses (pipelining),
+ * responses are flushed when there are no more buffered requests.
+ *
+ * Requests:
+ * GET term                   OK explanation, or NOT_FOUND
+ * MGET term1 term2 ...       OK then a field per term, its explanation or \N if not found
+ * HAS term                   TRUE or FALSE
+ * PREFIX limit prefix        OK then a field per term starting with prefix, up to limit terms
+ * ADD term explanation       OK, or ERROR message
+ * UPDATE term explanation    OK, or ERROR message
+ * REMOVE term                OK, or ERROR message
+ * SIZE                       OK size
+ * QUIT                       closes the connection
+ *
+ * Fields are escaped, backslash, tab, new line and carriage return are written as
+ * \\, \t, \n and \r. Every connection is served by its own thread. Serve a
+ * ConcurrentDictionary, so lookups don't wait for each other or for changes.
+ */
+public class DictionaryServer implements Closeable {
+    private static final String MISSING_FIELD = "\\N";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Dictionary dictionary;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    // Open connections, closed with the server
+    private final Set<Socket> sockets;
+    private final Thread acceptor;
+
+    /**
+     * Start serving dictionary
+     * @param dictionary dictionary to serve, should be safe to share between threads
+     * @param address address to listen on, null for all the local addresses
+     * @param port port to listen on, 0 for any free port
+     * @throws IOException thrown when the port can't be listened on
+     */
+    public DictionaryServer(Dictionary dictionary, InetAddress address, int port) throws IOException {
+        if (null == dictionary) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        this.dictionary = dictionary;
+        serverSocket = new ServerSocket(port, 0, address);
+        sockets = ConcurrentHashMap.newKeySet();
+        connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "dictionary-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        acceptor = new Thread(this::acceptConnections, "dictionary-server-" + serverSocket.getLocalPort());
+        acceptor.start();
+    }
+
+    /**
+     * Get the port the server listens on
+     * @return port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Wait until the server is closed
+     * @throws InterruptedException thrown when the waiting thread is interrupted
+     */
+    public void join() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /**
+     * Stop accepting connections and close the open ones
+     * @throws IOException thrown in case of socket error
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+
+        // Blocked reads don't respond to interrupts, closing the sockets ends them
+        for (Socket socket : sockets) {
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * Acceptor thread body, serves every connection on its own thread
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                // Closed while accepting, after close() went over the sockets
+                if (serverSocket.isClosed()) {
+                    closeQuietly(socket);
+                    break;
+                }
+
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException | RejectedExecutionException e) {
+                // Closed, or the connection failed before it was accepted
+            }
+        }
+    }
+
+    /**
+     * Close connection, ignoring errors
+     * @param socket the connection
+     */
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Closed anyway
+        }
+    }
+
+    /**
+     * Serve the requests of a connection until it's closed
+     * @param socket the connection
+     */
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     socket.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            StringBuilder response = new StringBuilder();
+            String request = in.readLine();
+            while (null != request && !"QUIT".equals(request)) {
+                response.setLength(0);
+                handle(request.split("\t", -1), response);
+                response.append('\n');
+                out.append(response);
+
+                // Answer pipelined requests together
+                if (!in.ready()) {
+                    out.flush();
+                }
+
+                request = in.readLine();
+            }
+        } catch (SocketException e) {
+            // The connection was closed
+        } catch (IOException e) {
+            // The connection failed, nothing to answer to
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    /**
+     * Handle request
+     * @param fields the request fields, the command and its escaped arguments
+     * @param response where to write the response, without the line end
+     */
+    private void handle(String[] fields, StringBuilder response) {
+        try {
+            switch (fields[0]) {
+                case "GET": {
+                    checkArguments(fields, 1);
+                    Term term = dictionary.findTerm(argument(fields[1]));
+                    if (null == term) {
+                        response.append("NOT_FOUND");
+                    } else {
+                        escape(term.getExplanation(), response.append("OK\t"));
+                    }
+                    break;
+                }
+                case "MGET":
+                    response.append("OK");
+                    for (int i = 1; i < fields.length; ++i) {
+                        Term term = dictionary.findTerm(argument(fields[i]));
+                        response.append('\t');
+                        if (null == term) {
+                            response.append(MISSING_FIELD);
+                        } else {
+                            escape(term.getExplanation(), response);
+                        }
+                    }
+                    break;
+                case "HAS":
+                    checkArguments(fields, 1);
+                    response.append(dictionary.isTermExists(argument(fields[1])) ? "TRUE" : "FALSE");
+                    break;
+                case "PREFIX": {
+                    checkArguments(fields, 2);
+                    List<Term> terms = dictionary.getTermsWithPrefix(argument(fields[2]), Integer.parseInt(fields[1]));
+                    response.append("OK");
+                    for (Term term : terms) {
+                        escape(term.getTerm(), response.append('\t'));
+                    }
+                    break;
+                }
+                case "ADD":
+                    checkArguments(fields, 2);
+                    dictionary.addTerm(argument(fields[1]), argument(fields[2]));
+                    response.append("OK");
+                    break;
+                case "UPDATE":
+                    checkArguments(fields, 2);
+                    dictionary.updateTerm(argument(fields[1]), argument(fields[2]));
+                    response.append("OK");
+                    break;
+                case "REMOVE":
+                    checkArguments(fields, 1);
+                    dictionary.removeTerm(argument(fields[1]));
+                    response.append("OK");
+                    break;
+                case "SIZE":
+                    response.append("OK\t").append(dictionary.size());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown command " + fields[0]);
+            }
+        } catch (TermExistsException | TermNotExistsException | IllegalArgumentException e) {
+            response.setLength(0);
+            escape(String.valueOf(e.getMessage()), response.append("ERROR\t"));
+        }
+    }
+
+    /**
+     * Check number of request arguments
+     * @param fields the request fields
+     * @param count required number of arguments
+     * @throws IllegalArgumentException thrown when the number of arguments is wrong
+     */
+    private static void checkArguments(String[] fields, int count) throws IllegalArgumentException {
+        if (fields.length != count + 1) {
+            throw new IllegalArgumentException("Wrong number of arguments");
+        }
+    }
+
+    /**
+     * Unescape request argument, which must have a value
+     * @param field the escaped argument
+     * @return the argument value
+     * @throws IllegalArgumentException thrown when the argument is the \N field of missing value or has invalid escape
+     */
+    private static String argument(String field) throws IllegalArgumentException {
+        String value = unescape(field);
+        if (null == value) {
+            throw new IllegalArgumentException("Missing argument value");
+        }
+
+        return value;
+    }
+
+    /**
+     * Escape protocol field
+     * @param str the field value
+     * @param out where to write the escaped field
+     * @return out
+     */
+    public static StringBuilder escape(String str, StringBuilder out) {
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Unescape protocol field
+     * @param field the escaped field
+     * @return the field value, or null for the \N field of missing value
+     * @throws IllegalArgumentException thrown when the field has invalid escape
+     */
+    public static String unescape(String field) throws IllegalArgumentException {
+        if (MISSING_FIELD.equals(field)) {
+            return null;
+        }
+
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+
+        StringBuilder value = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); ++i) {
+            char c = field.charAt(i);
+            if ('\\' != c) {
+                value.append(c);
+                continue;
+            }
+
+            if (++i == field.length()) {
+                throw new IllegalArgumentException("Invalid escape");
+            }
+
+            switch (field.charAt(i)) {
+                case '\\':
+                    value.append('\\');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid escape");
+            }
+        }
+
+        return value.toString();
+    }
+}
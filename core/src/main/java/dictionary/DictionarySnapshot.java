@@ -0,0 +1,169 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Read-only view of a dictionary at the point in time it was taken.
+ * The snapshot shares the dictionary terms and isn't affected by later changes,
+ * so it can be iterated, exported or searched on any thread while the dictionary
+ * keeps changing. Snapshots that aren't used anymore are reclaimed by the garbage collector
+ */
+public final class DictionarySnapshot implements Iterable<Term>, TermLookup {
+    private final PersistentTermMap.Node root;
+
+    /**
+     * Initialize snapshot of frozen tree version
+     * @param root root of the tree, null for empty snapshot
+     */
+    DictionarySnapshot(PersistentTermMap.Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Get the tree version of the snapshot
+     * @return root of the tree, null if the snapshot is empty
+     */
+    PersistentTermMap.Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Find term element
+     * @param term term to find
+     * @return term object, or null if the term isn't exists
+     */
+    @Override
+    public Term findTerm(String term) {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        return PersistentTermMap.find(root, term);
+    }
+
+    /**
+     * Get term element, get the term and it's explanation
+     * @param term term to get
+     * @return term object
+     * @throws TermNotExistsException throw when the requested term isn't exists
+     */
+    public Term getTerm(String term) throws TermNotExistsException {
+        Term t = findTerm(term);
+        if (null == t) {
+            throw new TermNotExistsException(term);
+        }
+
+        return t;
+    }
+
+    /**
+     * Checks if term exists
+     * @param term term to search
+     * @return true if the term exists, otherwise false
+     */
+    public boolean isTermExists(String term) {
+        return null != findTerm(term);
+    }
+
+    /**
+     * Get the first terms, in sorted order, that start with given prefix
+     * @param prefix prefix of the terms to get
+     * @param limit maximum number of terms to return
+     * @return up to limit terms starting with prefix, sorted
+     */
+    public List<Term> getTermsWithPrefix(String prefix, int limit) {
+        if (null == prefix) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        List<Term> result = new ArrayList<Term>();
+        Iterator<Term> iterator = PersistentTermMap.iterator(root, prefix);
+        while (result.size() < limit && iterator.hasNext()) {
+            Term term = iterator.next();
+            if (!term.getTerm().startsWith(prefix)) {
+                break;
+            }
+
+            result.add(term);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get term by its index in sorted order, in logarithmic time
+     * @param index index of the term
+     * @return the term
+     * @throws IndexOutOfBoundsException thrown when index is negative or not smaller than size()
+     */
+    public Term getTermAt(int index) {
+        return PersistentTermMap.termAt(root, index);
+    }
+
+    /**
+     * Get index of term in sorted order, in logarithmic time
+     * @param term term to find
+     * @return index of the term, or (-(insertion point) - 1) if it isn't in the snapshot
+     */
+    public int indexOf(String term) {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        return PersistentTermMap.indexOf(root, term);
+    }
+
+    /**
+     * Get snapshot with term added, or replacing the term with the same key.
+     * This snapshot isn't changed, the new one shares all but a logarithmic number of its nodes
+     * @param term the term
+     * @return the new snapshot
+     */
+    public DictionarySnapshot withTerm(Term term) {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        PersistentTermMap terms = new PersistentTermMap(root);
+        if (null != terms.putIfAbsent(term)) {
+            terms.replace(term);
+        }
+
+        return terms.snapshot();
+    }
+
+    /**
+     * Get snapshot without term.
+     * This snapshot isn't changed, the new one shares all but a logarithmic number of its nodes
+     * @param term the term to remove
+     * @return the new snapshot, or this snapshot if term isn't in it
+     */
+    public DictionarySnapshot withoutTerm(String term) {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        PersistentTermMap terms = new PersistentTermMap(root);
+
+        return (null == terms.remove(term)) ? this : terms.snapshot();
+    }
+
+    /**
+     * Get number of terms in the snapshot
+     * @return number of terms
+     */
+    public int size() {
+        return PersistentTermMap.size(root);
+    }
+
+    /**
+     * Implement snapshot iterator, the iterator doesn't support remove
+     * @return iterator to the snapshot terms, in sorted order
+     */
+    @Override
+    public Iterator<Term> iterator() {
+        return PersistentTermMap.iterator(root, null);
+    }
+}
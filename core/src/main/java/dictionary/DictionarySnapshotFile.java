@@ -0,0 +1,449 @@
+package dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a dictionary.
+ * The file format is (big endian):
+ * magic (int), version (int), terms count (int), offset table position (long)
+ * for every term, sorted by term:
+ *     term length (int), term UTF-8 bytes, explanation length (int), explanation UTF-8 bytes
+ * offset table: file offset of every term entry (long)
+ *
+ * Loading a snapshot doesn't parse or compare anything, and an opened
+ * snapshot serves lookups straight from the mapped file.
+ */
+public class DictionarySnapshotFile implements TermLookup {
+    static final int MAGIC = 0x44494353;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final MappedByteBuffer file;
+    private final int count;
+    private final int tableOffset;
+
+    /**
+     * Initialize snapshot served from mapped file
+     * @param file mapped snapshot file
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    private DictionarySnapshotFile(MappedByteBuffer file) throws IllegalArgumentException {
+        if (file.limit() < HEADER_SIZE || MAGIC != file.getInt(0) || VERSION != file.getInt(Integer.BYTES)) {
+            throw new IllegalArgumentException("Invalid snapshot format");
+        }
+
+        this.file = file;
+        count = file.getInt(2 * Integer.BYTES);
+        long table = file.getLong(3 * Integer.BYTES);
+        if (count < 0 || table < HEADER_SIZE || table + (long) count * Long.BYTES > file.limit()) {
+            throw new IllegalArgumentException("Invalid snapshot format");
+        }
+
+        tableOffset = (int) table;
+    }
+
+    /**
+     * Open snapshot file for lookups
+     * @param filePath path of the snapshot file
+     * @return snapshot that reads the terms from the mapped file
+     * @throws IOException thrown in case of file error, or when the file is too big to map
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static DictionarySnapshotFile open(Path filePath) throws IOException, IllegalArgumentException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too big to be mapped");
+            }
+
+            return new DictionarySnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Checks if file is a snapshot file
+     * @param filePath path of the file to check
+     * @return true if the file starts with the snapshot header, otherwise false
+     * @throws IOException thrown in case of file error
+     */
+    public static boolean isSnapshotFile(Path filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            return !header.hasRemaining() && MAGIC == header.getInt(0);
+        }
+    }
+
+    /**
+     * Write dictionary to snapshot file
+     * @param dictionary dictionary to write
+     * @param filePath path of the snapshot file, overwritten if exists
+     * @throws IOException thrown in case of file error
+     */
+    public static void write(Dictionary dictionary, Path filePath) throws IOException {
+        if (null == dictionary || null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        // One point in time view for the count and both passes, the dictionary may keep changing
+        DictionarySnapshot snapshot = dictionary.snapshot();
+        int count = snapshot.size();
+        long[] offsets = new long[count];
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(filePath), BUFFER_SIZE))) {
+            long position = HEADER_SIZE;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeLong(position + computeEntriesSize(snapshot));
+
+            int index = 0;
+            for (Term term : snapshot) {
+                offsets[index++] = position;
+                position += writeString(out, term.getTerm());
+                position += writeString(out, term.getExplanation());
+            }
+
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+    }
+
+    /**
+     * Compute the size of the entries part of the snapshot
+     * @param snapshot terms to write
+     * @return entries size in bytes
+     */
+    private static long computeEntriesSize(DictionarySnapshot snapshot) {
+        long size = 0;
+        for (Term term : snapshot) {
+            size += 2 * Integer.BYTES + utf8Length(term.getTerm()) + utf8Length(term.getExplanation());
+        }
+
+        return size;
+    }
+
+    /**
+     * Compute UTF-8 encoded length of a string, without encoding it
+     * @param str string to measure
+     * @return number of bytes in the string UTF-8 encoding
+     */
+    private static int utf8Length(String str) {
+        int length = 0;
+        for (int i = 0; i < str.length(); ++i) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < str.length()
+                    && Character.isLowSurrogate(str.charAt(i + 1))) {
+                length += 4;
+                ++i;
+            } else {
+                // Unpaired surrogates are encoded as a single '?'
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Write length prefixed UTF-8 string
+     * @param out where to write the string
+     * @param str string to write
+     * @return number of bytes written
+     * @throws IOException thrown in case of file error
+     */
+    private static int writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+
+        return Integer.BYTES + bytes.length;
+    }
+
+    /**
+     * Load dictionary from snapshot file
+     * @param filePath path of the snapshot file
+     * @return Dictionary initialized from the snapshot
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static Dictionary read(Path filePath) throws IOException, IllegalArgumentException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        return read(FileChannel.open(filePath, StandardOpenOption.READ));
+    }
+
+    /**
+     * Load dictionary from snapshot, reading it sequentially from a channel
+     * @param channel channel positioned at the snapshot start, closed when done
+     * @return Dictionary initialized from the snapshot
+     * @throws IOException thrown in case of read error
+     * @throws IllegalArgumentException thrown when the snapshot is with invalid format
+     */
+    public static Dictionary read(ReadableByteChannel channel) throws IOException, IllegalArgumentException {
+        if (null == channel) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        try (EntryReader in = new EntryReader(channel)) {
+            Term[] terms = new Term[in.readHeader()];
+            for (int i = 0; i < terms.length; ++i) {
+                String term = in.readString();
+                terms[i] = new Term(term, in.readString());
+            }
+
+            // Terms were written in order, so there is no need to sort
+            return Dictionary.createDictionaryFromSortedTerms(terms);
+        }
+    }
+
+    /**
+     * Convert text dictionary file to snapshot file
+     * @param textPath path of the dictionary text file
+     * @param snapshotPath path of the snapshot file, overwritten if exists
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the text file is with invalid format
+     */
+    public static void convertFromTextFile(Path textPath, Path snapshotPath) throws IOException, IllegalArgumentException {
+        write(Dictionary.createDictionaryFromFile(textPath), snapshotPath);
+    }
+
+    /**
+     * Convert snapshot file to text dictionary file, in the format of Dictionary.exportToFile
+     * @param snapshotPath path of the snapshot file
+     * @param textPath path of the dictionary text file, overwritten if exists
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the snapshot is with invalid format
+     */
+    public static void convertToTextFile(Path snapshotPath, Path textPath) throws IOException, IllegalArgumentException {
+        if (null == snapshotPath || null == textPath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        FileChannel channel = FileChannel.open(textPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try (DictionaryFileWriter writer = new DictionaryFileWriter(channel, Dictionary.FILE_CHARSET);
+             EntryReader in = new EntryReader(snapshotPath)) {
+            int count = in.readHeader();
+            for (int i = 0; i < count; ++i) {
+                String term = in.readString();
+                writer.writeTerm(new Term(term, in.readString()));
+            }
+        }
+    }
+
+    /**
+     * Get number of terms in the snapshot
+     * @return number of terms
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Get term element, read from the mapped file
+     * @param term term to get
+     * @return term object
+     * @throws TermNotExistsException throw when the requested term isn't exists
+     */
+    public Term getTerm(String term) throws TermNotExistsException {
+        Term t = findTerm(term);
+        if (null == t) {
+            throw new TermNotExistsException(term);
+        }
+
+        return t;
+    }
+
+    /**
+     * Find term element, read from the mapped file, without throwing when it isn't exists
+     * @param term term to find
+     * @return term object, or null if the term isn't exists
+     */
+    @Override
+    public Term findTerm(String term) {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        // Binary search on the sorted offset table
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = entryOffset(middle);
+            String middleTerm = stringAt(entry);
+            int cmp = middleTerm.compareTo(term);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                int explanationOffset = entry + Integer.BYTES + file.getInt(entry);
+                return new Term(middleTerm, stringAt(explanationOffset));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if term exists
+     * @param term term to search
+     * @return true if the term exists, otherwise false
+     */
+    public boolean isTermExists(String term) {
+        return null != findTerm(term);
+    }
+
+    /**
+     * Get file offset of term entry
+     * @param index index of the term in sorted order
+     * @return offset of the entry
+     */
+    private int entryOffset(int index) {
+        return (int) file.getLong(tableOffset + index * Long.BYTES);
+    }
+
+    /**
+     * Decode length prefixed UTF-8 string from the mapped file
+     * @param offset offset of the string length
+     * @return the string
+     */
+    private String stringAt(int offset) {
+        int length = file.getInt(offset);
+        byte[] bytes = new byte[length];
+        file.get(offset + Integer.BYTES, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sequential reader of length prefixed entries, of snapshots and of DictionaryMerger sorted runs
+     */
+    static class EntryReader implements Closeable {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * Initialize reader positioned at the snapshot start
+         * @param filePath path of the snapshot file
+         * @throws IOException thrown in case of file error
+         */
+        EntryReader(Path filePath) throws IOException {
+            this(FileChannel.open(filePath, StandardOpenOption.READ));
+        }
+
+        /**
+         * Initialize reader of channel positioned at the snapshot start
+         * @param channel channel to read, closed with the reader
+         */
+        EntryReader(ReadableByteChannel channel) {
+            this.channel = channel;
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.flip();
+        }
+
+        /**
+         * Read and validate snapshot header
+         * @return number of terms in the snapshot
+         * @throws IOException thrown in case of file error
+         * @throws IllegalArgumentException thrown when the header is invalid
+         */
+        int readHeader() throws IOException, IllegalArgumentException {
+            fill(HEADER_SIZE);
+            if (MAGIC != buffer.getInt() || VERSION != buffer.getInt()) {
+                throw new IllegalArgumentException("Invalid snapshot format");
+            }
+
+            int count = buffer.getInt();
+            buffer.getLong();
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid snapshot format");
+            }
+
+            return count;
+        }
+
+        /**
+         * Read length prefixed UTF-8 string
+         * @return the string
+         * @throws IOException thrown in case of file error
+         */
+        String readString() throws IOException {
+            fill(Integer.BYTES);
+            int length = buffer.getInt();
+            if (length < 0) {
+                throw new IllegalArgumentException("Invalid snapshot format");
+            }
+
+            if (length > buffer.capacity()) {
+                // Too big for the buffer, read it on its own
+                ByteBuffer bytes = ByteBuffer.allocate(length);
+                bytes.put(buffer);
+                while (bytes.hasRemaining()) {
+                    if (channel.read(bytes) < 0) {
+                        throw new EOFException();
+                    }
+                }
+
+                return new String(bytes.array(), StandardCharsets.UTF_8);
+            }
+
+            fill(length);
+            String str = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+
+            return str;
+        }
+
+        /**
+         * Make sure the buffer holds at least given number of bytes
+         * @param size number of bytes required
+         * @throws IOException thrown in case of file error or unexpected end of file
+         */
+        private void fill(int size) throws IOException {
+            if (buffer.remaining() >= size) {
+                return;
+            }
+
+            buffer.compact();
+            while (buffer.position() < size) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+
+            buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Inverted index from the words of term explanations to the terms.
+ * Every indexed term gets an id, and every word keeps the sorted
+ * ids of the terms it appears in, as a plain int array.
+ * The index is kept up to date as a TermChangeListener of the dictionary.
+ * A change only tells which term to index again: the term is looked up in the dictionary
+ * under the index lock, and indexed as it is now. So the index ends up equal to the dictionary
+ * whatever the order the changes and the initial build reach it, as long as every change is reported
+ */
+class ExplanationIndex implements TermChangeListener {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Function<String, Term> dictionary;
+    private final Map<String, Postings> postings;
+    private final Map<String, Integer> ids;
+    private Term[] terms;
+    private int nextId;
+
+    /**
+     * Initialize empty index
+     * @param dictionary gets the current term of the dictionary, or null if it isn't exists
+     */
+    ExplanationIndex(Function<String, Term> dictionary) {
+        this.dictionary = dictionary;
+        postings = new HashMap<String, Postings>();
+        ids = new HashMap<String, Integer>();
+        terms = new Term[INITIAL_CAPACITY];
+        nextId = 0;
+    }
+
+    /**
+     * Find the terms whose explanation contains the query words
+     * @param query words to search, separated by any non letter or digit characters
+     * @param isMatchAll true to find terms containing all the words,
+     *                   false to find terms containing any of the words
+     * @return the matching terms, sorted
+     */
+    synchronized List<Term> search(String query, boolean isMatchAll) {
+        List<Postings> lists = new ArrayList<Postings>();
+        for (String word : tokenize(query)) {
+            Postings list = postings.get(word);
+            if (null != list) {
+                lists.add(list);
+            } else if (isMatchAll) {
+                return new ArrayList<Term>();
+            }
+        }
+
+        if (lists.isEmpty()) {
+            return new ArrayList<Term>();
+        }
+
+        // Start from the shortest list, the intersection can't be longer
+        lists.sort((first, second) -> Integer.compare(first.size, second.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int resultSize = result.length;
+        for (int i = 1; i < lists.size(); ++i) {
+            Postings list = lists.get(i);
+            if (isMatchAll) {
+                resultSize = intersect(result, resultSize, list.ids, list.size);
+            } else {
+                result = union(result, resultSize, list.ids, list.size);
+                resultSize = result.length;
+            }
+        }
+
+        Term[] matches = new Term[resultSize];
+        for (int i = 0; i < resultSize; ++i) {
+            matches[i] = terms[result[i]];
+        }
+
+        Arrays.sort(matches);
+
+        return new ArrayList<Term>(Arrays.asList(matches));
+    }
+
+    @Override
+    public void termAdded(Term term) {
+        index(term.getTerm());
+    }
+
+    @Override
+    public void termUpdated(Term oldTerm, Term newTerm) {
+        index(newTerm.getTerm());
+    }
+
+    @Override
+    public void termRemoved(Term term) {
+        index(term.getTerm());
+    }
+
+    /**
+     * Index term as it is now in the dictionary, or remove it if it isn't in the dictionary
+     * @param term the term to index
+     */
+    synchronized void index(String term) {
+        Term current = dictionary.apply(term);
+        Integer id = ids.get(term);
+        if (null != id && terms[id].equals(current)) {
+            terms[id] = current;
+            return;
+        }
+
+        remove(term);
+        if (null != current) {
+            add(current);
+        }
+    }
+
+    /**
+     * Replace indexed term with an equal term, keeping its id and postings
+     * @param term term equal to the indexed term
+     */
+    synchronized void replaceEqual(Term term) {
+        Integer id = ids.get(term.getTerm());
+        if (null != id && terms[id].equals(term)) {
+            terms[id] = term;
+        }
+    }
+
+    /**
+     * Index term under a new id
+     * @param term term to index
+     */
+    private void add(Term term) {
+        if (nextId == terms.length) {
+            if (2 * ids.size() < terms.length) {
+                // Most ids belong to removed terms, reassign them
+                compact();
+            }
+
+            if (nextId == terms.length) {
+                terms = Arrays.copyOf(terms, 2 * terms.length);
+            }
+        }
+
+        int id = nextId++;
+        terms[id] = term;
+        ids.put(term.getTerm(), id);
+
+        // New ids are bigger than all existing ones, so adding keeps the lists sorted
+        for (String word : tokenize(term.getExplanation())) {
+            Postings list = postings.get(word);
+            if (null == list) {
+                list = new Postings();
+                postings.put(word, list);
+            }
+
+            list.add(id);
+        }
+    }
+
+    /**
+     * Remove term from the index
+     * @param term term to remove
+     */
+    private void remove(String term) {
+        Integer id = ids.remove(term);
+        if (null == id) {
+            return;
+        }
+
+        for (String word : tokenize(terms[id].getExplanation())) {
+            Postings list = postings.get(word);
+            list.remove(id);
+            if (0 == list.size) {
+                postings.remove(word);
+            }
+        }
+
+        terms[id] = null;
+    }
+
+    /**
+     * Rebuild the index with consecutive ids for the existing terms
+     */
+    private void compact() {
+        Term[] existing = new Term[ids.size()];
+        int count = 0;
+        for (int i = 0; i < nextId; ++i) {
+            if (null != terms[i]) {
+                existing[count++] = terms[i];
+            }
+        }
+
+        postings.clear();
+        ids.clear();
+        Arrays.fill(terms, null);
+        nextId = 0;
+
+        for (Term term : existing) {
+            add(term);
+        }
+    }
+
+    /**
+     * Split text to lower case words
+     * @param text text to split
+     * @return the distinct words of the text
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new HashSet<String>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); ++i) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+
+        return words;
+    }
+
+    /**
+     * Intersect sorted ids array with another one, in place
+     * @param ids sorted ids, replaced with the intersection
+     * @param size number of ids in ids
+     * @param other sorted ids to intersect with
+     * @param otherSize number of ids in other
+     * @return number of ids in the intersection
+     */
+    private static int intersect(int[] ids, int size, int[] other, int otherSize) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < otherSize) {
+            if (ids[i] < other[j]) {
+                ++i;
+            } else if (ids[i] > other[j]) {
+                ++j;
+            } else {
+                ids[count++] = ids[i];
+                ++i;
+                ++j;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Unite two sorted ids arrays
+     * @param ids sorted ids
+     * @param size number of ids in ids
+     * @param other sorted ids
+     * @param otherSize number of ids in other
+     * @return sorted ids in any of the arrays
+     */
+    private static int[] union(int[] ids, int size, int[] other, int otherSize) {
+        int[] result = new int[size + otherSize];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < otherSize) {
+            if (j == otherSize || (i < size && ids[i] < other[j])) {
+                result[count++] = ids[i++];
+            } else if (i == size || ids[i] > other[j]) {
+                result[count++] = other[j++];
+            } else {
+                result[count++] = ids[i++];
+                ++j;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Sorted ids of the terms containing a word
+     */
+    private static class Postings {
+        private int[] ids = new int[1];
+        private int size = 0;
+
+        /**
+         * Add id bigger than all the ids in the list
+         * @param id id to add
+         */
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+            }
+
+            ids[size++] = id;
+        }
+
+        /**
+         * Remove id from the list
+         * @param id id to remove
+         */
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                --size;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package dictionary;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+
+/**
+ * Reader that decodes a region of a file straight from memory mapped windows.
+ * The characters are decoded directly into the caller buffer,
+ * no intermediate strings or byte arrays are created.
+ */
+public class MappedFileReader extends Reader {
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final CharsetDecoder decoder;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean isLastWindow;
+    private boolean isFinished;
+
+    /**
+     * Initialize reader of the file region [start, end)
+     * @param channel file to read, the caller is responsible to close it
+     * @param start offset of the first byte to read
+     * @param end offset after the last byte to read
+     * @param charset the file charset
+     * @throws IOException thrown in case of file error
+     */
+    public MappedFileReader(FileChannel channel, long start, long end, Charset charset) throws IOException {
+        if (null == channel || null == charset || start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid argument");
+        }
+
+        this.channel = channel;
+        this.end = end;
+        decoder = charset.newDecoder();
+        isFinished = (start == end);
+        if (!isFinished) {
+            mapWindow(start);
+        }
+    }
+
+    /**
+     * Decode characters into a portion of an array
+     * @param buffer destination buffer
+     * @param offset offset at which to start storing characters
+     * @param length maximum number of characters to read
+     * @return the number of characters read, or -1 if the end of the region was reached
+     * @throws IOException thrown in case of file error or undecodable input
+     */
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (0 == length) {
+            return 0;
+        }
+
+        CharBuffer out = CharBuffer.wrap(buffer, offset, length);
+        while (!isFinished && out.hasRemaining()) {
+            CoderResult result = decoder.decode(window, out, isLastWindow);
+            if (result.isError()) {
+                result.throwException();
+            }
+
+            if (result.isOverflow()) {
+                break;
+            }
+
+            if (isLastWindow) {
+                decoder.flush(out);
+                isFinished = true;
+            } else {
+                // Continue from the first byte that wasn't decoded yet,
+                // so characters split between windows are decoded whole
+                mapWindow(windowStart + window.position());
+            }
+        }
+
+        int count = out.position() - offset;
+        if (0 == count && isFinished) {
+            return -1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Get offset of the next byte to decode
+     * @return file offset of the next byte, or the region end if all of it was read
+     */
+    public long getPosition() {
+        if (isFinished) {
+            return end;
+        }
+
+        return windowStart + window.position();
+    }
+
+    /**
+     * Map the next file window
+     * @param start offset of the window start
+     * @throws IOException thrown in case of file error
+     */
+    private void mapWindow(long start) throws IOException {
+        long size = Math.min(WINDOW_SIZE, end - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        isLastWindow = (start + size == end);
+    }
+
+    /**
+     * Release the mapped window
+     */
+    @Override
+    public void close() {
+        window = null;
+        isFinished = true;
+    }
+}
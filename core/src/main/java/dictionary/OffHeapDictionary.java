@@ -0,0 +1,466 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Represent a words dictionary stored outside the Java heap.
+ * The terms are kept as UTF-8 bytes in direct buffers, in the layout of
+ * a snapshot entry: term length (int), term bytes, explanation length (int),
+ * explanation bytes. A direct sorted index holds the address of every entry.
+ * Term objects are created only when a lookup or the iteration returns them,
+ * and lookups compare the stored bytes without decoding them.
+ *
+ * The stored terms are immutable. Changes are kept in a sorted map on the heap
+ * and merged on lookup and iteration, until compact() folds them into new off-heap
+ * storage, which happens automatically once there are enough of them.
+ * Lookups and iteration don't lock, and may run while the dictionary is changed.
+ */
+public class OffHeapDictionary extends StoredTermsDictionary<OffHeapDictionary.Storage> {
+    private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int FIRST_CHUNK_SIZE = 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Initialize dictionary of stored terms
+     * @param storage the stored terms
+     */
+    private OffHeapDictionary(Storage storage) {
+        super(storage);
+    }
+
+    /**
+     * Create off-heap dictionary with the terms of given dictionary
+     * @param dictionary dictionary to copy the terms from
+     * @return Dictionary stored off-heap
+     */
+    public static OffHeapDictionary create(Dictionary dictionary) {
+        if (null == dictionary) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        return new OffHeapDictionary(Storage.build(dictionary, dictionary.size()));
+    }
+
+    /**
+     * Create off-heap dictionary from snapshot file.
+     * The snapshot entries are copied as is, without creating any object per term
+     * @param filePath path of a snapshot written by DictionarySnapshotFile
+     * @return Dictionary stored off-heap
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static OffHeapDictionary createFromSnapshot(Path filePath) throws IOException, IllegalArgumentException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            return new OffHeapDictionary(Storage.load(channel));
+        }
+    }
+
+    /**
+     * Get number of bytes stored off-heap
+     * @return off-heap bytes, of the entries and of the index
+     */
+    public long getOffHeapSize() {
+        return getStorage().getSize();
+    }
+
+    @Override
+    Storage buildStorage(Iterable<Term> terms, int count) {
+        return Storage.build(terms, count);
+    }
+
+    /**
+     * Immutable off-heap storage of sorted terms, safe to read from any thread
+     */
+    static class Storage implements StoredTermsDictionary.Storage {
+        private final List<ByteBuffer> chunks;
+        private final LongBuffer index;
+        private final int count;
+
+        /**
+         * Initialize storage
+         * @param chunks direct buffers holding the entries
+         * @param index direct buffer of the entries addresses, in sorted order
+         * @param count number of stored terms
+         */
+        private Storage(List<ByteBuffer> chunks, LongBuffer index, int count) {
+            this.chunks = chunks;
+            this.index = index;
+            this.count = count;
+        }
+
+        /**
+         * Store sorted terms
+         * @param terms the terms, sorted
+         * @param count number of terms
+         * @return the storage
+         */
+        static Storage build(Iterable<Term> terms, int count) {
+            List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+            LongBuffer index = allocateIndex(count);
+            ByteBuffer chunk = null;
+
+            int i = 0;
+            for (Term term : terms) {
+                byte[] termBytes = term.getTerm().getBytes(StandardCharsets.UTF_8);
+                byte[] explanationBytes = term.getExplanation().getBytes(StandardCharsets.UTF_8);
+                int entrySize = 2 * Integer.BYTES + termBytes.length + explanationBytes.length;
+
+                if (null == chunk || chunk.remaining() < entrySize) {
+                    // Grow the chunks so small dictionaries stay small
+                    int chunkSize = (null == chunk) ? FIRST_CHUNK_SIZE : Math.min(CHUNK_SIZE, 2 * chunk.capacity());
+                    chunk = ByteBuffer.allocateDirect(Math.max(chunkSize, entrySize));
+                    chunks.add(chunk);
+                }
+
+                index.put(i++, address(chunks.size() - 1, chunk.position()));
+                chunk.putInt(termBytes.length).put(termBytes);
+                chunk.putInt(explanationBytes.length).put(explanationBytes);
+            }
+
+            return new Storage(chunks, index, count);
+        }
+
+        /**
+         * Load the entries of a snapshot file.
+         * Runs of entries are copied from the file straight into the chunks
+         * @param channel the snapshot file
+         * @return the storage
+         * @throws IOException thrown in case of file error
+         * @throws IllegalArgumentException thrown when the file is with invalid format
+         */
+        static Storage load(FileChannel channel) throws IOException, IllegalArgumentException {
+            ByteBuffer header = ByteBuffer.allocate(DictionarySnapshotFile.HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            int magic = header.getInt();
+            int version = header.getInt();
+            int count = header.getInt();
+            long tableOffset = header.getLong();
+
+            if (DictionarySnapshotFile.MAGIC != magic || DictionarySnapshotFile.VERSION != version || count < 0
+                    || tableOffset < DictionarySnapshotFile.HEADER_SIZE
+                    || tableOffset + (long) count * Long.BYTES > channel.size()) {
+                throw new IllegalArgumentException("Invalid snapshot format");
+            }
+
+            List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+            LongBuffer index = allocateIndex(count);
+            ByteBuffer table = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            table.flip();
+            long tablePosition = tableOffset;
+
+            ByteBuffer chunk = null;
+            long runStart = DictionarySnapshotFile.HEADER_SIZE;
+            int runChunkStart = 0;
+            long entryStart = (count > 0) ? nextOffset(channel, table, tablePosition) : tableOffset;
+            tablePosition += Long.BYTES;
+
+            for (int i = 0; i < count; ++i) {
+                long entryEnd = tableOffset;
+                if (i + 1 < count) {
+                    entryEnd = nextOffset(channel, table, tablePosition);
+                    tablePosition += Long.BYTES;
+                }
+
+                long entrySize = entryEnd - entryStart;
+                if (entrySize < 2 * Integer.BYTES || entrySize > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Invalid snapshot format");
+                }
+
+                int chunkOffset = runChunkStart + (int) (entryStart - runStart);
+                if (null == chunk || chunk.capacity() - chunkOffset < entrySize) {
+                    // Copy the entries gathered so far, and continue in a new chunk
+                    if (null != chunk) {
+                        copyRun(channel, chunk, runChunkStart, runStart, entryStart);
+                    }
+
+                    long chunkSize = Math.min(CHUNK_SIZE, tableOffset - entryStart);
+                    chunk = ByteBuffer.allocateDirect((int) Math.max(chunkSize, entrySize));
+                    chunks.add(chunk);
+                    runStart = entryStart;
+                    runChunkStart = 0;
+                    chunkOffset = 0;
+                }
+
+                index.put(i, address(chunks.size() - 1, chunkOffset));
+                entryStart = entryEnd;
+            }
+
+            if (null != chunk) {
+                copyRun(channel, chunk, runChunkStart, runStart, entryStart);
+            }
+
+            return new Storage(chunks, index, count);
+        }
+
+        /**
+         * Allocate the index of the entries addresses
+         * @param count number of terms
+         * @return direct buffer for the addresses
+         * @throws IllegalArgumentException thrown when the terms are too many for a direct buffer
+         */
+        private static LongBuffer allocateIndex(int count) throws IllegalArgumentException {
+            long size = (long) Math.max(1, count) * Long.BYTES;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many terms to index");
+            }
+
+            return ByteBuffer.allocateDirect((int) size).asLongBuffer();
+        }
+
+        /**
+         * Read the next entry offset from the snapshot offset table
+         * @param channel the snapshot file
+         * @param table buffer of the table part that was read
+         * @param position file position of the offset
+         * @return the entry offset
+         * @throws IOException thrown in case of file error
+         */
+        private static long nextOffset(FileChannel channel, ByteBuffer table, long position) throws IOException {
+            if (table.remaining() < Long.BYTES) {
+                table.clear();
+                table.limit((int) Math.min(table.capacity(), channel.size() - position));
+                readFully(channel, table, position);
+                table.flip();
+            }
+
+            return table.getLong();
+        }
+
+        /**
+         * Copy entries from the file into a chunk
+         * @param channel the snapshot file
+         * @param chunk chunk to copy to
+         * @param chunkOffset where in the chunk to copy
+         * @param start file offset of the first entry
+         * @param end file offset after the last entry
+         * @throws IOException thrown in case of file error
+         */
+        private static void copyRun(FileChannel channel, ByteBuffer chunk, int chunkOffset, long start, long end)
+                throws IOException {
+            ByteBuffer target = chunk.duplicate();
+            target.position(chunkOffset).limit(chunkOffset + (int) (end - start));
+            readFully(channel, target, start);
+        }
+
+        /**
+         * Fill buffer from the file
+         * @param channel file to read
+         * @param buffer buffer to fill up to its limit
+         * @param position file position to start reading from
+         * @throws IOException thrown in case of file error or unexpected end of file
+         */
+        private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int count = channel.read(buffer, position);
+                if (count < 0) {
+                    throw new IllegalArgumentException("Invalid snapshot format");
+                }
+
+                position += count;
+            }
+        }
+
+        /**
+         * Compose entry address
+         * @param chunk index of the entry chunk
+         * @param offset offset of the entry in the chunk
+         * @return the address
+         */
+        private static long address(int chunk, int offset) {
+            return ((long) chunk << 32) | offset;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public Term find(String term) {
+            int i = indexOf(term);
+
+            return (i < 0) ? null : termAt(i);
+        }
+
+        @Override
+        public boolean contains(String term) {
+            return indexOf(term) >= 0;
+        }
+
+        @Override
+        public Iterator<Term> iterator() {
+            return new Iterator<Term>() {
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < count;
+                }
+
+                @Override
+                public Term next() {
+                    if (i == count) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return termAt(i++);
+                }
+            };
+        }
+
+        /**
+         * Get number of bytes stored off-heap
+         * @return off-heap bytes
+         */
+        long getSize() {
+            long size = (long) index.capacity() * Long.BYTES;
+            for (ByteBuffer chunk : chunks) {
+                size += chunk.capacity();
+            }
+
+            return size;
+        }
+
+        /**
+         * Find stored term
+         * @param term term to find
+         * @return index of the term, or -1 if it isn't stored
+         */
+        int indexOf(String term) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int cmp = compareAt(middle, term);
+                if (cmp < 0) {
+                    low = middle + 1;
+                } else if (cmp > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Materialize stored term
+         * @param i index of the term
+         * @return the term
+         */
+        Term termAt(int i) {
+            long address = index.get(i);
+            ByteBuffer chunk = chunks.get((int) (address >>> 32));
+            int offset = (int) address;
+
+            int termLength = chunk.getInt(offset);
+            String term = decode(chunk, offset + Integer.BYTES, termLength);
+            int explanationOffset = offset + Integer.BYTES + termLength;
+            String explanation = decode(chunk, explanationOffset + Integer.BYTES, chunk.getInt(explanationOffset));
+
+            return new Term(term, explanation);
+        }
+
+        /**
+         * Compare stored term with a term, in String.compareTo order, without decoding the stored term
+         * @param i index of the stored term
+         * @param term term to compare to
+         * @return negative, zero or positive if the stored term is smaller, equal or bigger than term
+         */
+        int compareAt(int i, String term) {
+            long address = index.get(i);
+            ByteBuffer chunk = chunks.get((int) (address >>> 32));
+            int position = (int) address + Integer.BYTES;
+            int end = position + chunk.getInt((int) address);
+            int j = 0;
+
+            while (position < end) {
+                // Decode the next code point of the stored term
+                int b = chunk.get(position) & 0xff;
+                int codePoint;
+                if (b < 0x80) {
+                    codePoint = b;
+                    position += 1;
+                } else if (b < 0xe0) {
+                    codePoint = ((b & 0x1f) << 6) | (chunk.get(position + 1) & 0x3f);
+                    position += 2;
+                } else if (b < 0xf0) {
+                    codePoint = ((b & 0x0f) << 12) | ((chunk.get(position + 1) & 0x3f) << 6)
+                            | (chunk.get(position + 2) & 0x3f);
+                    position += 3;
+                } else {
+                    codePoint = ((b & 0x07) << 18) | ((chunk.get(position + 1) & 0x3f) << 12)
+                            | ((chunk.get(position + 2) & 0x3f) << 6) | (chunk.get(position + 3) & 0x3f);
+                    position += 4;
+                }
+
+                // Compare as UTF-16 units, like String.compareTo
+                if (Character.isBmpCodePoint(codePoint)) {
+                    if (j == term.length()) {
+                        return 1;
+                    }
+
+                    if (codePoint != term.charAt(j)) {
+                        return codePoint - term.charAt(j);
+                    }
+
+                    ++j;
+                } else {
+                    // Surrogate pair, compared unit by unit without decoding to chars
+                    char high = Character.highSurrogate(codePoint);
+                    if (j == term.length()) {
+                        return 1;
+                    }
+
+                    if (high != term.charAt(j)) {
+                        return high - term.charAt(j);
+                    }
+
+                    ++j;
+                    char low = Character.lowSurrogate(codePoint);
+                    if (j == term.length()) {
+                        return 1;
+                    }
+
+                    if (low != term.charAt(j)) {
+                        return low - term.charAt(j);
+                    }
+
+                    ++j;
+                }
+            }
+
+            return (j == term.length()) ? 0 : -1;
+        }
+
+        /**
+         * Decode UTF-8 bytes of a chunk
+         * @param chunk the chunk
+         * @param offset offset of the bytes
+         * @param length number of bytes
+         * @return the decoded string
+         */
+        private static String decode(ByteBuffer chunk, int offset, int length) {
+            byte[] bytes = new byte[length];
+            chunk.get(offset, bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package dictionary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Imports dictionary file in parallel.
+ * The file is split into chunks that end right after a closing tag,
+ * each chunk is parsed and sorted on its own, and the sorted chunks
+ * are merged pairwise up the fork/join tree.
+ * The tag characters are searched as single bytes, which is valid
+ * for Dictionary.FILE_CHARSET (UTF-8)
+ */
+class ParallelDictionaryImporter {
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long[] boundaries;
+
+    /**
+     * Initialize importer of an open file
+     * @param channel file to import
+     * @param parallelism number of threads that will parse the file
+     * @throws IOException thrown in case of file error
+     */
+    private ParallelDictionaryImporter(FileChannel channel, int parallelism) throws IOException {
+        this.channel = channel;
+        boundaries = findChunkBoundaries(parallelism);
+    }
+
+    /**
+     * Read all terms of a dictionary file using several threads
+     * @param filePath path of the dictionary file
+     * @param parallelism number of threads to use
+     * @return the file terms, sorted
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    static Term[] importSortedTerms(Path filePath, int parallelism) throws IOException, IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            ParallelDictionaryImporter importer = new ParallelDictionaryImporter(channel, parallelism);
+            return pool.invoke(importer.new ChunkRangeTask(0, importer.boundaries.length - 1));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IllegalArgumentException e) {
+            // The pool may rethrow a copy of an exception thrown by a worker
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Split the file to chunks which end at a term end
+     * @param parallelism number of threads that will parse the chunks
+     * @return chunks offsets, chunk i is [boundaries[i], boundaries[i + 1])
+     * @throws IOException thrown in case of file error
+     */
+    private long[] findChunkBoundaries(int parallelism) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, size / ((long) parallelism * CHUNKS_PER_THREAD));
+
+        List<Long> result = new ArrayList<Long>();
+        result.add(0L);
+
+        long last = 0;
+        while (size - last > chunkSize) {
+            long boundary = findTermEnd(last + chunkSize);
+            if (boundary >= size) {
+                break;
+            }
+
+            result.add(boundary);
+            last = boundary;
+        }
+
+        result.add(size);
+
+        long[] boundaries = new long[result.size()];
+        for (int i = 0; i < boundaries.length; ++i) {
+            boundaries[i] = result.get(i);
+        }
+
+        return boundaries;
+    }
+
+    /**
+     * Find the end of the first closing tag starting at given offset
+     * @param offset where to start the search
+     * @return offset right after the closing tag, or the file size if there is none
+     * @throws IOException thrown in case of file error
+     */
+    private long findTermEnd(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = offset;
+        byte previous = 0;
+        boolean isInClosingTag = false;
+
+        while (true) {
+            buffer.clear();
+            int count = channel.read(buffer, position);
+            if (count <= 0) {
+                return channel.size();
+            }
+
+            for (int i = 0; i < count; ++i) {
+                byte current = buffer.get(i);
+                if (isInClosingTag && '>' == current) {
+                    return position + i + 1;
+                }
+
+                if ('<' == previous && '/' == current) {
+                    isInClosingTag = true;
+                }
+
+                previous = current;
+            }
+
+            position += count;
+        }
+    }
+
+    /**
+     * Parse one chunk of the file
+     * @param chunk index of the chunk to parse
+     * @return the chunk terms, sorted
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the chunk is with invalid format
+     */
+    private Term[] parseChunk(int chunk) throws IOException, IllegalArgumentException {
+        MappedFileReader reader = new MappedFileReader(channel, boundaries[chunk], boundaries[chunk + 1],
+                Dictionary.FILE_CHARSET);
+        DictionaryFileParser parser = new DictionaryFileParser(reader);
+
+        List<Term> terms = new ArrayList<Term>();
+        Term term = parser.nextTerm();
+        while (null != term) {
+            terms.add(term);
+            term = parser.nextTerm();
+        }
+
+        Term[] sorted = terms.toArray(new Term[0]);
+        Arrays.sort(sorted);
+
+        for (int i = 1; i < sorted.length; ++i) {
+            if (0 == sorted[i - 1].compareTo(sorted[i])) {
+                throw new IllegalArgumentException("Invalid file format");
+            }
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Merge two sorted term arrays
+     * @param left sorted terms
+     * @param right sorted terms
+     * @return sorted terms of both arrays
+     * @throws IllegalArgumentException thrown when a term appears in both arrays
+     */
+    private static Term[] merge(Term[] left, Term[] right) throws IllegalArgumentException {
+        Term[] result = new Term[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+
+        while (i < left.length && j < right.length) {
+            int cmp = left[i].compareTo(right[j]);
+            if (0 == cmp) {
+                throw new IllegalArgumentException("Invalid file format");
+            }
+
+            result[k++] = (cmp < 0) ? left[i++] : right[j++];
+        }
+
+        while (i < left.length) {
+            result[k++] = left[i++];
+        }
+
+        while (j < right.length) {
+            result[k++] = right[j++];
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse and merge a range of chunks
+     */
+    private class ChunkRangeTask extends RecursiveTask<Term[]> {
+        private final int first;
+        private final int last;
+
+        /**
+         * Initialize task of chunks [first, last)
+         * @param first first chunk of the range
+         * @param last chunk after the range end
+         */
+        ChunkRangeTask(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected Term[] compute() {
+            if (last - first <= 1) {
+                if (first == last) {
+                    return new Term[0];
+                }
+
+                try {
+                    return parseChunk(first);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            int middle = (first + last) >>> 1;
+            ChunkRangeTask left = new ChunkRangeTask(first, middle);
+            ChunkRangeTask right = new ChunkRangeTask(middle, last);
+            left.fork();
+            Term[] rightTerms = right.compute();
+
+            return merge(left.join(), rightTerms);
+        }
+    }
+}
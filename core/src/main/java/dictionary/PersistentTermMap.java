@@ -0,0 +1,553 @@
+package dictionary;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted terms keyed by term, stored in an AVL tree whose versions can be kept.
+ * Taking a snapshot, or an iterator, freezes the current version: its nodes are never
+ * changed again, and a later change copies the path to the changed node and shares the
+ * rest of the tree. Nodes created after the version was frozen belong to the map and are
+ * changed in place, so without snapshots a change costs what it costs in a mutable tree.
+ * Versions that aren't referenced anymore are reclaimed by the garbage collector.
+ *
+ * The map isn't thread safe. Frozen versions may be read by any thread,
+ * once the snapshot is handed to it safely, like through an executor or a volatile field
+ */
+class PersistentTermMap implements TermStore {
+    private Node root;
+    // Owner of the nodes that may be changed in place, replaced when the version is frozen
+    private Object owner;
+    // The term found by the last change, null if the term wasn't in the tree
+    private Term found;
+
+    /**
+     * Tree node, changed in place only by the map that owns it
+     */
+    static final class Node {
+        // The term key, kept in the node so comparisons don't go through the term
+        final String key;
+        final Object owner;
+        Term term;
+        Node left;
+        Node right;
+        int height;
+        int size;
+
+        /**
+         * Initialize node
+         * @param owner owner of the node
+         * @param term the node term
+         * @param left subtree of the smaller terms
+         * @param right subtree of the greater terms
+         */
+        Node(Object owner, Term term, Node left, Node right) {
+            key = term.getTerm();
+            this.owner = owner;
+            this.term = term;
+            this.left = left;
+            this.right = right;
+            height = 1 + Math.max(height(left), height(right));
+            size = 1 + size(left) + size(right);
+        }
+    }
+
+    /**
+     * Initialize empty map
+     */
+    PersistentTermMap() {
+        this((Node) null);
+    }
+
+    /**
+     * Initialize map of sorted terms, in linear time
+     * @param terms terms sorted by term, without duplicates
+     */
+    PersistentTermMap(Term[] terms) {
+        owner = new Object();
+        root = build(owner, terms, 0, terms.length);
+    }
+
+    /**
+     * Initialize map of frozen tree version, the version itself isn't changed by the map
+     * @param root root of the tree, null for empty map
+     */
+    PersistentTermMap(Node root) {
+        this.root = root;
+        owner = new Object();
+    }
+
+    /**
+     * Get the current version of the tree, the caller must not change it
+     * @return root of the tree, null if the map is empty
+     */
+    Node getRoot() {
+        return root;
+    }
+
+    @Override
+    public Term get(String term) {
+        return find(root, term);
+    }
+
+    @Override
+    public Term putIfAbsent(Term term) {
+        found = null;
+        root = insert(root, term.getTerm(), term);
+
+        return found;
+    }
+
+    @Override
+    public Term replace(Term term) {
+        String key = term.getTerm();
+        Node node = root;
+        while (null != node) {
+            int compare = key.compareTo(node.key);
+            if (0 == compare) {
+                break;
+            }
+
+            node = (compare < 0) ? node.left : node.right;
+        }
+
+        if (null == node) {
+            return null;
+        }
+
+        Term oldTerm = node.term;
+        if (owner == node.owner) {
+            // The ancestors of a node that belongs to the map belong to it too
+            node.term = term;
+        } else {
+            root = replace(root, key, term);
+        }
+
+        return oldTerm;
+    }
+
+    @Override
+    public boolean replace(Term oldTerm, Term newTerm) {
+        Term current = find(root, oldTerm.getTerm());
+        if (null == current || !current.equals(oldTerm)) {
+            return false;
+        }
+
+        replace(newTerm);
+
+        return true;
+    }
+
+    @Override
+    public Term remove(String term) {
+        found = null;
+        root = delete(root, term);
+
+        return found;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public String firstKey() {
+        Node node = root;
+        if (null == node) {
+            return null;
+        }
+
+        while (null != node.left) {
+            node = node.left;
+        }
+
+        return node.key;
+    }
+
+    @Override
+    public String ceilingKey(String key) {
+        return ceiling(key, true);
+    }
+
+    @Override
+    public String higherKey(String key) {
+        return ceiling(key, false);
+    }
+
+    /**
+     * Get iterator of the current version, which is frozen so the map can be changed during the iteration
+     * @param fromKey the first term to iterate, inclusive, null to iterate from the start
+     * @return iterator of the terms, in sorted order
+     */
+    @Override
+    public Iterator<Term> iterator(String fromKey) {
+        freeze();
+
+        return iterator(root, fromKey);
+    }
+
+    /**
+     * Get snapshot of the current version, which is frozen, in constant time
+     * @return the snapshot
+     */
+    @Override
+    public DictionarySnapshot snapshot() {
+        freeze();
+
+        return new DictionarySnapshot(root);
+    }
+
+    /**
+     * Freeze the current version, later changes copy its nodes instead of changing them
+     */
+    private void freeze() {
+        owner = new Object();
+    }
+
+    /**
+     * Get the smallest key greater than key
+     * @param key the key
+     * @param inclusive true to get key itself if it's in the map
+     * @return the key, or null if there is no such key
+     */
+    private String ceiling(String key, boolean inclusive) {
+        String result = null;
+        for (Node node = root; null != node; ) {
+            int compare = node.key.compareTo(key);
+            if (compare > 0 || (inclusive && 0 == compare)) {
+                result = node.key;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Find term in tree
+     * @param node root of the tree
+     * @param key the term to find
+     * @return the term, or null if it isn't in the tree
+     */
+    static Term find(Node node, String key) {
+        while (null != node) {
+            int compare = key.compareTo(node.key);
+            if (0 == compare) {
+                return node.term;
+            }
+
+            node = (compare < 0) ? node.left : node.right;
+        }
+
+        return null;
+    }
+
+    /**
+     * Get number of terms in tree
+     * @param node root of the tree
+     * @return terms count
+     */
+    static int size(Node node) {
+        return (null == node) ? 0 : node.size;
+    }
+
+    /**
+     * Get term by its index in sorted order, using the subtree sizes
+     * @param node root of the tree
+     * @param index index of the term
+     * @return the term
+     * @throws IndexOutOfBoundsException thrown when index isn't in the tree range
+     */
+    static Term termAt(Node node, int index) {
+        if (index < 0 || index >= size(node)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(node));
+        }
+
+        while (true) {
+            int leftSize = size(node.left);
+            if (index == leftSize) {
+                return node.term;
+            }
+
+            if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Get index of term in sorted order, using the subtree sizes
+     * @param node root of the tree
+     * @param key the term to find
+     * @return index of the term, or (-(insertion point) - 1) if it isn't in the tree
+     */
+    static int indexOf(Node node, String key) {
+        int index = 0;
+        while (null != node) {
+            int compare = key.compareTo(node.key);
+            if (0 == compare) {
+                return index + size(node.left);
+            }
+
+            if (compare < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return -index - 1;
+    }
+
+    /**
+     * Build balanced tree of sorted terms
+     * @param owner owner of the new nodes
+     * @param terms terms sorted by term, without duplicates
+     * @param from index of the first term, inclusive
+     * @param to index of the last term, exclusive
+     * @return root of the tree
+     */
+    static Node build(Object owner, Term[] terms, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+
+        int middle = (from + to) >>> 1;
+
+        return new Node(owner, terms[middle], build(owner, terms, from, middle), build(owner, terms, middle + 1, to));
+    }
+
+    /**
+     * Get iterator of frozen tree version
+     * @param root root of the tree
+     * @param fromKey the first term to iterate, inclusive, null to iterate from the start
+     * @return iterator of the terms, in sorted order
+     */
+    static Iterator<Term> iterator(Node root, String fromKey) {
+        return new TermIterator(root, fromKey);
+    }
+
+    /**
+     * Get height of tree
+     * @param node root of the tree
+     * @return height, 0 for empty tree
+     */
+    private static int height(Node node) {
+        return (null == node) ? 0 : node.height;
+    }
+
+    /**
+     * Add term if it isn't in the tree, otherwise set found to the existing term
+     * @param node root of the tree
+     * @param key the term key
+     * @param term the term
+     * @return root of the changed tree
+     */
+    private Node insert(Node node, String key, Term term) {
+        if (null == node) {
+            return new Node(owner, term, null, null);
+        }
+
+        int compare = key.compareTo(node.key);
+        if (0 == compare) {
+            found = node.term;
+            return node;
+        }
+
+        if (compare < 0) {
+            Node left = insert(node.left, key, term);
+            return (null != found) ? node : balance(node, left, node.right);
+        }
+
+        Node right = insert(node.right, key, term);
+
+        return (null != found) ? node : balance(node, node.left, right);
+    }
+
+    /**
+     * Replace term that is in the tree, copying the frozen nodes on its path
+     * @param node root of the tree
+     * @param key the term key
+     * @param term the new term
+     * @return root of the changed tree
+     */
+    private Node replace(Node node, String key, Term term) {
+        int compare = key.compareTo(node.key);
+        if (0 == compare) {
+            Node changed = editable(node);
+            changed.term = term;
+
+            return changed;
+        }
+
+        if (compare < 0) {
+            return update(node, replace(node.left, key, term), node.right);
+        }
+
+        return update(node, node.left, replace(node.right, key, term));
+    }
+
+    /**
+     * Remove term if it's in the tree, and set found to the removed term
+     * @param node root of the tree
+     * @param key the term to remove
+     * @return root of the changed tree
+     */
+    private Node delete(Node node, String key) {
+        if (null == node) {
+            return null;
+        }
+
+        int compare = key.compareTo(node.key);
+        if (compare < 0) {
+            Node left = delete(node.left, key);
+            return (null == found) ? node : balance(node, left, node.right);
+        }
+
+        if (compare > 0) {
+            Node right = delete(node.right, key);
+            return (null == found) ? node : balance(node, node.left, right);
+        }
+
+        found = node.term;
+        if (null == node.left) {
+            return node.right;
+        }
+
+        if (null == node.right) {
+            return node.left;
+        }
+
+        // Replace by the smallest greater term
+        Node successor = node.right;
+        while (null != successor.left) {
+            successor = successor.left;
+        }
+
+        return balance(successor, node.left, deleteFirst(node.right));
+    }
+
+    /**
+     * Remove the smallest term
+     * @param node root of the tree, not empty
+     * @return root of the changed tree
+     */
+    private Node deleteFirst(Node node) {
+        if (null == node.left) {
+            return node.right;
+        }
+
+        return balance(node, deleteFirst(node.left), node.right);
+    }
+
+    /**
+     * Set the subtrees of node, rotating it if their heights differ by 2
+     * @param node the node
+     * @param left subtree of the smaller terms
+     * @param right subtree of the greater terms
+     * @return root of the balanced subtree
+     */
+    private Node balance(Node node, Node left, Node right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return update(left, left.left, update(node, left.right, right));
+            }
+
+            Node pivot = left.right;
+            return update(pivot, update(left, left.left, pivot.left), update(node, pivot.right, right));
+        }
+
+        if (difference < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return update(right, update(node, left, right.left), right.right);
+            }
+
+            Node pivot = right.left;
+            return update(pivot, update(node, left, pivot.left), update(right, pivot.right, right.right));
+        }
+
+        return update(node, left, right);
+    }
+
+    /**
+     * Set the subtrees of node, copying it if it's frozen
+     * @param node the node
+     * @param left subtree of the smaller terms
+     * @param right subtree of the greater terms
+     * @return the node or its copy
+     */
+    private Node update(Node node, Node left, Node right) {
+        if (owner != node.owner) {
+            return new Node(owner, node.term, left, right);
+        }
+
+        node.left = left;
+        node.right = right;
+        node.height = 1 + Math.max(height(left), height(right));
+        node.size = 1 + size(left) + size(right);
+
+        return node;
+    }
+
+    /**
+     * Get node that can be changed in place
+     * @param node the node
+     * @return the node, or its copy if it's frozen
+     */
+    private Node editable(Node node) {
+        return (owner == node.owner) ? node : new Node(owner, node.term, node.left, node.right);
+    }
+
+    /**
+     * In order iterator of frozen tree version
+     */
+    private static class TermIterator implements Iterator<Term> {
+        private final Node[] stack;
+        private int depth;
+
+        /**
+         * Initialize iterator
+         * @param root root of the tree
+         * @param fromKey the first term to iterate, inclusive, null to iterate from the start
+         */
+        TermIterator(Node root, String fromKey) {
+            stack = new Node[height(root)];
+
+            for (Node node = root; null != node; ) {
+                if (null == fromKey || node.key.compareTo(fromKey) >= 0) {
+                    stack[depth++] = node;
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public Term next() {
+            if (0 == depth) {
+                throw new NoSuchElementException();
+            }
+
+            Node node = stack[--depth];
+            for (Node child = node.right; null != child; child = child.left) {
+                stack[depth++] = child;
+            }
+
+            return node.term;
+        }
+    }
+}
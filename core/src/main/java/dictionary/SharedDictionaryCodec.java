@@ -0,0 +1,330 @@
+package dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Compressor of short blocks of text against a shared preset dictionary.
+ * The compressed format is LZ4 style, byte oriented, so decompression only copies bytes:
+ * a sequence is a token byte, whose high 4 bits are the literals length and low 4 bits
+ * are the match length minus MIN_MATCH, the literals, the match offset (2 bytes,
+ * little endian) and the rest of the lengths that don't fit in the token, 255 per byte.
+ * The last sequence has only literals. Offsets are counted back from the current position
+ * in the dictionary followed by the block, so matches may refer to the dictionary.
+ */
+final class SharedDictionaryCodec {
+    /**
+     * Maximal size of the shared dictionary, so every position in it is reachable by an offset
+     */
+    static final int MAX_DICTIONARY_SIZE = 0xFFFF;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int DICTIONARY_HASH_BITS = 16;
+    private static final int BLOCK_HASH_BITS = 12;
+    // Candidates tried in every hash chain, more find longer matches but compress slower
+    private static final int MAX_CHAIN_STEPS = 16;
+
+    private final byte[] dictionary;
+    // Hash chains of the dictionary positions, built on the first compression
+    private int[] dictionaryHeads;
+    private int[] dictionaryChain;
+    private int[] blockHeads;
+    private int[] blockChain;
+
+    /**
+     * Initialize codec of given dictionary
+     * @param dictionary the shared dictionary, up to MAX_DICTIONARY_SIZE bytes
+     */
+    SharedDictionaryCodec(byte[] dictionary) {
+        if (dictionary.length > MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Dictionary too big");
+        }
+
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Get the shared dictionary
+     * @return the dictionary bytes
+     */
+    byte[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Get the size of the output buffer needed to compress block
+     * @param length length of the block
+     * @return maximal compressed length
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compress block
+     * @param raw the block bytes
+     * @param length length of the block
+     * @param out where to write the compressed block, at least maxCompressedLength bytes after offset
+     * @param offset position in out to write at
+     * @return the position in out after the compressed block
+     */
+    int compress(byte[] raw, int length, byte[] out, int offset) {
+        if (null == dictionaryHeads) {
+            indexDictionary();
+        }
+
+        if (null == blockChain || blockChain.length < length) {
+            blockChain = new int[Math.max(length, 1024)];
+        }
+        Arrays.fill(blockHeads, -1);
+
+        int anchor = 0;
+        int position = 0;
+        while (position + MIN_MATCH <= length) {
+            int value = readInt(raw, position);
+            int bestLength = 0;
+            int bestOffset = 0;
+
+            // Earlier in the block
+            int blockHash = hash(value, BLOCK_HASH_BITS);
+            int candidate = blockHeads[blockHash];
+            for (int steps = 0; candidate >= 0 && steps < MAX_CHAIN_STEPS; ++steps) {
+                // The chain goes back in the block, the rest of it is out of reach too
+                if (position - candidate > MAX_OFFSET) {
+                    break;
+                }
+
+                int matchLength = matchLength(raw, candidate, raw, position, length - position);
+                if (matchLength > bestLength) {
+                    bestLength = matchLength;
+                    bestOffset = position - candidate;
+                }
+
+                candidate = blockChain[candidate];
+            }
+
+            // In the dictionary, not crossing its end
+            candidate = dictionaryHeads[hash(value, DICTIONARY_HASH_BITS)];
+            for (int steps = 0; candidate >= 0 && steps < MAX_CHAIN_STEPS; ++steps) {
+                int matchOffset = position + dictionary.length - candidate;
+                if (matchOffset > MAX_OFFSET) {
+                    break;
+                }
+
+                int matchLength = matchLength(dictionary, candidate, raw, position,
+                        Math.min(length - position, dictionary.length - candidate));
+                if (matchLength > bestLength) {
+                    bestLength = matchLength;
+                    bestOffset = matchOffset;
+                }
+
+                candidate = dictionaryChain[candidate];
+            }
+
+            blockChain[position] = blockHeads[blockHash];
+            blockHeads[blockHash] = position;
+
+            if (bestLength < MIN_MATCH) {
+                ++position;
+                continue;
+            }
+
+            offset = writeSequence(raw, anchor, position - anchor, bestOffset, bestLength, out, offset);
+
+            // Index the matched positions too, for the following matches
+            for (int i = position + 1; i < position + bestLength && i + MIN_MATCH <= length; ++i) {
+                int hash = hash(readInt(raw, i), BLOCK_HASH_BITS);
+                blockChain[i] = blockHeads[hash];
+                blockHeads[hash] = i;
+            }
+
+            position += bestLength;
+            anchor = position;
+        }
+
+        return writeSequence(raw, anchor, length - anchor, 0, 0, out, offset);
+    }
+
+    /**
+     * Release the compression state, only decompression is possible afterwards
+     */
+    void endCompression() {
+        dictionaryHeads = null;
+        dictionaryChain = null;
+        blockHeads = null;
+        blockChain = null;
+    }
+
+    /**
+     * Decompress block, or its beginning
+     * @param in holds the compressed block
+     * @param offset position of the compressed block in in
+     * @param end position after the compressed block in in
+     * @param out where to write the block, big enough for all of it
+     * @param limit stop once that many bytes are decompressed
+     * @return number of decompressed bytes, at least limit unless the block is shorter
+     */
+    int decompress(byte[] in, int offset, int end, byte[] out, int limit) {
+        int position = offset;
+        int length = 0;
+        while (position < end && length < limit) {
+            int token = in[position++] & 0xFF;
+
+            int literals = token >>> 4;
+            if (15 == literals) {
+                int b;
+                do {
+                    b = in[position++] & 0xFF;
+                    literals += b;
+                } while (255 == b);
+            }
+
+            System.arraycopy(in, position, out, length, literals);
+            position += literals;
+            length += literals;
+            if (position == end) {
+                break;
+            }
+
+            int matchOffset = (in[position] & 0xFF) | (in[position + 1] & 0xFF) << 8;
+            position += 2;
+
+            int matchLength = token & 0x0F;
+            if (15 == matchLength) {
+                int b;
+                do {
+                    b = in[position++] & 0xFF;
+                    matchLength += b;
+                } while (255 == b);
+            }
+            matchLength += MIN_MATCH;
+
+            int source = length - matchOffset;
+            if (source < 0) {
+                // Starts in the dictionary, may continue into the block
+                int fromDictionary = Math.min(matchLength, -source);
+                System.arraycopy(dictionary, dictionary.length + source, out, length, fromDictionary);
+                length += fromDictionary;
+                matchLength -= fromDictionary;
+                source = 0;
+            }
+
+            if (length - source >= matchLength) {
+                System.arraycopy(out, source, out, length, matchLength);
+                length += matchLength;
+            } else {
+                // Overlapping match repeats the last matchOffset bytes
+                for (int i = 0; i < matchLength; ++i) {
+                    out[length++] = out[source + i];
+                }
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Build the hash chains of the dictionary positions
+     */
+    private void indexDictionary() {
+        dictionaryHeads = new int[1 << DICTIONARY_HASH_BITS];
+        Arrays.fill(dictionaryHeads, -1);
+        dictionaryChain = new int[dictionary.length];
+        for (int i = 0; i + MIN_MATCH <= dictionary.length; ++i) {
+            int hash = hash(readInt(dictionary, i), DICTIONARY_HASH_BITS);
+            dictionaryChain[i] = dictionaryHeads[hash];
+            dictionaryHeads[hash] = i;
+        }
+
+        blockHeads = new int[1 << BLOCK_HASH_BITS];
+    }
+
+    /**
+     * Write sequence
+     * @param raw the block bytes
+     * @param literalsStart position of the literals in the block
+     * @param literals number of literals
+     * @param matchOffset offset of the match, ignored without match
+     * @param matchLength length of the match, 0 for the last sequence
+     * @param out where to write
+     * @param offset position in out to write at
+     * @return the position in out after the sequence
+     */
+    private static int writeSequence(byte[] raw, int literalsStart, int literals, int matchOffset, int matchLength,
+                                     byte[] out, int offset) {
+        int matchRest = (0 == matchLength) ? 0 : matchLength - MIN_MATCH;
+        out[offset++] = (byte) (Math.min(literals, 15) << 4 | Math.min(matchRest, 15));
+        if (literals >= 15) {
+            offset = writeLengthRest(literals - 15, out, offset);
+        }
+
+        System.arraycopy(raw, literalsStart, out, offset, literals);
+        offset += literals;
+
+        if (0 != matchLength) {
+            out[offset++] = (byte) matchOffset;
+            out[offset++] = (byte) (matchOffset >>> 8);
+            if (matchRest >= 15) {
+                offset = writeLengthRest(matchRest - 15, out, offset);
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * Write the part of a length that doesn't fit in the token
+     * @param rest the rest of the length
+     * @param out where to write
+     * @param offset position in out to write at
+     * @return the position in out after the length
+     */
+    private static int writeLengthRest(int rest, byte[] out, int offset) {
+        while (rest >= 255) {
+            out[offset++] = (byte) 255;
+            rest -= 255;
+        }
+        out[offset++] = (byte) rest;
+
+        return offset;
+    }
+
+    /**
+     * Get length of the common prefix of two byte ranges
+     * @param first the first bytes
+     * @param firstStart start of the first range
+     * @param second the second bytes
+     * @param secondStart start of the second range
+     * @param max maximal length to compare
+     * @return the common length
+     */
+    private static int matchLength(byte[] first, int firstStart, byte[] second, int secondStart, int max) {
+        int length = 0;
+        while (length < max && first[firstStart + length] == second[secondStart + length]) {
+            ++length;
+        }
+
+        return length;
+    }
+
+    /**
+     * Read 4 bytes, little endian
+     * @param bytes where to read
+     * @param position where to read from
+     * @return the bytes value
+     */
+    private static int readInt(byte[] bytes, int position) {
+        return (bytes[position] & 0xFF) | (bytes[position + 1] & 0xFF) << 8
+                | (bytes[position + 2] & 0xFF) << 16 | (bytes[position + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * Hash 4 bytes value
+     * @param value the value
+     * @param bits number of hash bits
+     * @return the hash
+     */
+    private static int hash(int value, int bits) {
+        return (value * 0x9E3779B1) >>> (32 - bits);
+    }
+}
@@ -0,0 +1,163 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the terms within a small edit distance of a query.
+ * The sorted terms are walked as a trie: the edit distance rows of a prefix
+ * are computed once for all terms that share it, and every term starting
+ * with a prefix that is already too far from the query is skipped at once.
+ * Only the prefixes that are within range are visited, not the whole dictionary
+ */
+class SimilarTermsSearch {
+    private final TermStore terms;
+    private final String query;
+    private final int maxDistance;
+    private final List<int[]> rows;
+
+    /**
+     * Initialize search of given query
+     * @param terms sorted terms to search in
+     * @param query term to find similar terms to
+     * @param maxDistance maximum edit distance of the found terms
+     */
+    private SimilarTermsSearch(TermStore terms, String query, int maxDistance) {
+        this.terms = terms;
+        this.query = query;
+        this.maxDistance = maxDistance;
+        rows = new ArrayList<int[]>();
+
+        // Distances of the empty prefix from every prefix of the query
+        int[] first = new int[query.length() + 1];
+        for (int j = 0; j <= query.length(); ++j) {
+            first[j] = j;
+        }
+
+        rows.add(first);
+    }
+
+    /**
+     * Find the terms within given edit distance of a query
+     * @param terms sorted terms to search in
+     * @param query term to find similar terms to
+     * @param maxDistance maximum number of single character insertions,
+     *                    deletions and substitutions between the query and the found terms
+     * @return the found terms, closest first, ordered by term within the same distance
+     */
+    static List<Term> search(TermStore terms, String query, int maxDistance) {
+        return new SimilarTermsSearch(terms, query, maxDistance).search();
+    }
+
+    /**
+     * Walk the terms and collect the ones within range
+     * @return the found terms, closest first
+     */
+    private List<Term> search() {
+        List<List<Term>> byDistance = new ArrayList<List<Term>>();
+        for (int i = 0; i <= maxDistance; ++i) {
+            byDistance.add(new ArrayList<Term>());
+        }
+
+        String previous = "";
+        String current = terms.firstKey();
+        while (null != current) {
+            // Rows of the prefix shared with the previous term are still valid
+            int depth = commonPrefixLength(previous, current);
+            int prunedDepth = -1;
+            while (depth < current.length()) {
+                ++depth;
+                if (computeRow(depth, current.charAt(depth - 1)) > maxDistance) {
+                    prunedDepth = depth;
+                    break;
+                }
+            }
+
+            if (prunedDepth < 0) {
+                int distance = rows.get(depth)[query.length()];
+                if (distance <= maxDistance) {
+                    // The term may have been removed since its key was found
+                    Term term = terms.get(current);
+                    if (null != term) {
+                        byDistance.get(distance).add(term);
+                    }
+                }
+
+                previous = current;
+                current = terms.higherKey(current);
+            } else {
+                // No term starting with this prefix can be within range
+                previous = current.substring(0, prunedDepth - 1);
+                String next = prefixSuccessor(current.substring(0, prunedDepth));
+                current = (null == next) ? null : terms.ceilingKey(next);
+            }
+        }
+
+        // Terms were visited in sorted order, so every distance list is sorted
+        List<Term> result = new ArrayList<Term>();
+        for (List<Term> found : byDistance) {
+            result.addAll(found);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compute the edit distances row of a prefix, from the row of the shorter prefix
+     * @param depth length of the prefix
+     * @param c last character of the prefix
+     * @return the smallest distance in the row
+     */
+    private int computeRow(int depth, char c) {
+        if (rows.size() == depth) {
+            rows.add(new int[query.length() + 1]);
+        }
+
+        int[] previousRow = rows.get(depth - 1);
+        int[] row = rows.get(depth);
+        row[0] = depth;
+        int min = row[0];
+        for (int j = 1; j <= query.length(); ++j) {
+            int substitution = previousRow[j - 1] + ((c == query.charAt(j - 1)) ? 0 : 1);
+            row[j] = Math.min(substitution, Math.min(previousRow[j], row[j - 1]) + 1);
+            min = Math.min(min, row[j]);
+        }
+
+        return min;
+    }
+
+    /**
+     * Get the length of the common prefix of two strings
+     * @param first first string
+     * @param second second string
+     * @return number of leading characters that are equal in both strings
+     */
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        for (int i = 0; i < length; ++i) {
+            if (first.charAt(i) != second.charAt(i)) {
+                return i;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Get the smallest string that is bigger than all strings starting with prefix
+     * @param prefix the prefix
+     * @return the successor, or null if there is no such string
+     */
+    private static String prefixSuccessor(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && Character.MAX_VALUE == prefix.charAt(end - 1)) {
+            --end;
+        }
+
+        if (0 == end) {
+            return null;
+        }
+
+        return prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+}
@@ -0,0 +1,398 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base of the dictionaries whose terms are kept in immutable storage.
+ * Changes are kept in a sorted map on the heap and merged on lookup and iteration.
+ * Once the changes are more than 1/COMPACT_RATIO of the stored terms, they are folded
+ * into new storage, so the map and the cost of merging it stay bounded.
+ *
+ * Lookups and iteration don't lock. The storage and its changes are published together
+ * through a volatile reference, and every change is a single update of a concurrent map.
+ * Changes are serialized with each other and with compaction. Iteration is in sorted order
+ * and reflects the dictionary at some point at or after its creation
+ * @param <S> type of the storage
+ */
+abstract class StoredTermsDictionary<S extends StoredTermsDictionary.Storage> implements Iterable<Term>, TermLookup {
+    private static final int COMPACT_RATIO = 8;
+    private static final int MIN_COMPACT_CHANGES = 1024;
+    // Marks a stored term that was removed, the map can't hold null
+    private static final Term REMOVED = new Term("", "");
+
+    private volatile State<S> state;
+    private volatile int size;
+    // Number of entries in the changes map, guarded by the dictionary lock
+    private int changesCount;
+    private final List<TermChangeListener> listeners;
+
+    /**
+     * Immutable storage of sorted terms
+     */
+    interface Storage extends Iterable<Term> {
+        /**
+         * Get number of stored terms
+         * @return number of terms
+         */
+        int size();
+
+        /**
+         * Find stored term
+         * @param term term to find
+         * @return the term, or null if it isn't stored
+         */
+        Term find(String term);
+
+        /**
+         * Checks if term is stored, without materializing it
+         * @param term term to search
+         * @return true if the term is stored, otherwise false
+         */
+        boolean contains(String term);
+    }
+
+    /**
+     * Storage together with the changes made to it
+     * @param <S> type of the storage
+     */
+    private static class State<S> {
+        final S storage;
+        // Changed terms by term, REMOVED for removed stored terms
+        final ConcurrentSkipListMap<String, Term> changes;
+
+        /**
+         * Initialize state without changes
+         * @param storage the stored terms
+         */
+        State(S storage) {
+            this.storage = storage;
+            changes = new ConcurrentSkipListMap<String, Term>();
+        }
+    }
+
+    /**
+     * Initialize dictionary of stored terms
+     * @param storage the stored terms
+     */
+    StoredTermsDictionary(S storage) {
+        state = new State<S>(storage);
+        size = storage.size();
+        listeners = new CopyOnWriteArrayList<TermChangeListener>();
+    }
+
+    /**
+     * Store sorted terms, for folding the changes into new storage
+     * @param terms the terms, sorted
+     * @param count number of terms
+     * @return the storage
+     */
+    abstract S buildStorage(Iterable<Term> terms, int count);
+
+    /**
+     * Get the current storage, without the changes made to it
+     * @return the storage
+     */
+    S getStorage() {
+        return state.storage;
+    }
+
+    /**
+     * Add term to the dictionary
+     * @param term term to add
+     * @param explanation term explanation
+     * @throws TermExistsException The term already exists
+     */
+    public void addTerm(String term, String explanation) throws TermExistsException {
+        addTerm(new Term(term, explanation));
+    }
+
+    /**
+     * Add term to the dictionary
+     * @param term term to add
+     * @throws TermExistsException The term already exists
+     */
+    public synchronized void addTerm(Term term) throws TermExistsException {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        if (isTermExists(term.getTerm())) {
+            throw new TermExistsException(term.getTerm());
+        }
+
+        putChange(term.getTerm(), term);
+        ++size;
+        fireTermAdded(term);
+        compactIfNeeded();
+    }
+
+    /**
+     * Update existing dictionary term
+     * @param term term to update
+     * @param explanation new explanation
+     * @throws TermNotExistsException thrown when the term not exists
+     */
+    public synchronized void updateTerm(String term, String explanation) throws TermNotExistsException {
+        Term oldTerm = findTerm(term);
+        if (null == oldTerm) {
+            throw new TermNotExistsException(term);
+        }
+
+        Term newTerm = new Term(term, explanation);
+
+        putChange(term, newTerm);
+        fireTermUpdated(oldTerm, newTerm);
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove existing term
+     * @param term term to remove
+     * @throws TermNotExistsException thrown when the term not exists
+     */
+    public synchronized void removeTerm(String term) throws TermNotExistsException {
+        Term oldTerm = findTerm(term);
+        if (null == oldTerm) {
+            throw new TermNotExistsException(term);
+        }
+
+        if (state.storage.contains(term)) {
+            // Hide the stored term
+            putChange(term, REMOVED);
+        } else if (null != state.changes.remove(term)) {
+            --changesCount;
+        }
+
+        --size;
+        fireTermRemoved(oldTerm);
+        compactIfNeeded();
+    }
+
+    /**
+     * Get term element, get the term and it's explanation
+     * @param term term to get
+     * @return term object
+     * @throws TermNotExistsException throw when the requested term isn't exists
+     */
+    public Term getTerm(String term) throws TermNotExistsException {
+        Term t = findTerm(term);
+        if (null == t) {
+            throw new TermNotExistsException(term);
+        }
+
+        return t;
+    }
+
+    /**
+     * Find term element, without throwing when it isn't exists
+     * @param term term to find
+     * @return term object, or null if the term isn't exists
+     */
+    @Override
+    public Term findTerm(String term) {
+        State<S> current = state;
+        Term change = current.changes.get(term);
+        if (null != change) {
+            return (REMOVED == change) ? null : change;
+        }
+
+        return current.storage.find(term);
+    }
+
+    /**
+     * Checks if term exists, without materializing stored terms
+     * @param term term to search
+     * @return true if the term exists, otherwise false
+     */
+    public boolean isTermExists(String term) {
+        State<S> current = state;
+        Term change = current.changes.get(term);
+        if (null != change) {
+            return REMOVED != change;
+        }
+
+        return current.storage.contains(term);
+    }
+
+    /**
+     * Get number of terms in the dictionary
+     * @return number of terms
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fold the changes into new storage.
+     * Called automatically once the changes are more than 1/COMPACT_RATIO of the stored terms
+     */
+    public synchronized void compact() {
+        if (0 == changesCount) {
+            return;
+        }
+
+        // Writers are locked out, so the iteration sees exactly size terms
+        state = new State<S>(buildStorage(this, size));
+        changesCount = 0;
+    }
+
+    /**
+     * Export dictionary to file, the file is written using Dictionary.FILE_CHARSET
+     * @param filePath path of the file to export to, overwritten if exists
+     * @throws IOException thrown in case of file error
+     */
+    public void exportToFile(Path filePath) throws IOException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DictionaryFileWriter writer = new DictionaryFileWriter(channel, Dictionary.FILE_CHARSET)) {
+            for (Term term : this) {
+                writer.writeTerm(term);
+            }
+        }
+    }
+
+    /**
+     * Register listener to be notified on every term change
+     * @param listener listener to register
+     */
+    public void addTermChangeListener(TermChangeListener listener) {
+        if (null == listener) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregister term change listener
+     * @param listener listener to unregister
+     */
+    public void removeTermChangeListener(TermChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireTermAdded(Term term) {
+        for (TermChangeListener listener : listeners) {
+            listener.termAdded(term);
+        }
+    }
+
+    private void fireTermUpdated(Term oldTerm, Term newTerm) {
+        for (TermChangeListener listener : listeners) {
+            listener.termUpdated(oldTerm, newTerm);
+        }
+    }
+
+    private void fireTermRemoved(Term term) {
+        for (TermChangeListener listener : listeners) {
+            listener.termRemoved(term);
+        }
+    }
+
+    /**
+     * Record change, the caller holds the dictionary lock
+     * @param term the changed term
+     * @param change the new term, or REMOVED
+     */
+    private void putChange(String term, Term change) {
+        if (null == state.changes.put(term, change)) {
+            ++changesCount;
+        }
+    }
+
+    /**
+     * Compact once the changes are too many to merge cheaply, the caller holds the dictionary lock
+     */
+    private void compactIfNeeded() {
+        if (changesCount > Math.max(MIN_COMPACT_CHANGES, state.storage.size() / COMPACT_RATIO)) {
+            compact();
+        }
+    }
+
+    /**
+     * Implement dictionary iterator, merging the stored terms with the changes
+     * @return iterator to dictionary items, in sorted order
+     */
+    @Override
+    public Iterator<Term> iterator() {
+        State<S> current = state;
+        Iterator<Term> stored = current.storage.iterator();
+        Iterator<Map.Entry<String, Term>> changed = current.changes.entrySet().iterator();
+
+        return new Iterator<Term>() {
+            private Term storedTerm = nextStored();
+            private Map.Entry<String, Term> change = nextChange();
+            private Term next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return null != next;
+            }
+
+            @Override
+            public Term next() {
+                if (null == next) {
+                    throw new NoSuchElementException();
+                }
+
+                Term result = next;
+                next = advance();
+
+                return result;
+            }
+
+            private Term nextStored() {
+                return stored.hasNext() ? stored.next() : null;
+            }
+
+            private Map.Entry<String, Term> nextChange() {
+                return changed.hasNext() ? changed.next() : null;
+            }
+
+            /**
+             * Find the next existing term, from the storage or from the changes
+             * @return the next term, or null at the end
+             */
+            private Term advance() {
+                while (null != storedTerm || null != change) {
+                    int cmp = (null == storedTerm) ? 1
+                            : (null == change) ? -1
+                            : storedTerm.getTerm().compareTo(change.getKey());
+
+                    if (cmp < 0) {
+                        Term term = storedTerm;
+                        storedTerm = nextStored();
+
+                        return term;
+                    }
+
+                    // The change overrides the stored term with the same key
+                    if (0 == cmp) {
+                        storedTerm = nextStored();
+                    }
+
+                    Term changedTerm = change.getValue();
+                    change = nextChange();
+                    if (REMOVED != changedTerm) {
+                        return changedTerm;
+                    }
+                }
+
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package dictionary;
+
+/**
+ * Represent dictionary term.
+ * Terms are immutable, so they are safe to share between threads and to use as hash keys.
+ * Terms are ordered by term only, while equal terms have the same term and explanation
+ */
+public final class Term implements Comparable<Term> {
+    private final String term;
+    private final String explanation;
+    // Cached hash code, 0 until computed
+    private int hash;
+
+    /**
+     * Initialize term with given
+     * term and explanation
+     * @param term term to initialize to
+     * @param explanation explanation to initialize
+     */
+    public Term(String term, String explanation) {
+        if (null == term || null == explanation) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        this.term = term;
+        this.explanation = explanation;
+    }
+
+    /**
+     * Get term
+     * @return object term
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    /**
+     * Get object explanation
+     * @return object explanation
+     */
+    public String getExplanation() {
+        return explanation;
+    }
+
+    /**
+     * Get term with the same term and another explanation
+     * @param explanation the explanation
+     * @return this term if its explanation is the same instance, otherwise new term
+     */
+    public Term withExplanation(String explanation) {
+        return (this.explanation == explanation) ? this : new Term(term, explanation);
+    }
+
+    /**
+     * compare this term to other term
+     * @param other term to compare
+     * @return 0 if the terms are equal
+     * positive number if this term is greater
+     * negative number if this term is smaller
+     */
+    @Override
+    public int compareTo(Term other) {
+        return term.compareTo(other.term);
+    }
+
+    /**
+     * Checks if this term equals to other object
+     * @param other object to compare
+     * @return true if other is term with the same term and explanation, otherwise false
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof Term)) {
+            return false;
+        }
+
+        Term otherTerm = (Term) other;
+
+        return hashCode() == otherTerm.hashCode() && term.equals(otherTerm.term)
+                && explanation.equals(otherTerm.explanation);
+    }
+
+    /**
+     * Get hash code of the term and explanation, computed once
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (0 == h) {
+            h = 31 * term.hashCode() + explanation.hashCode();
+            hash = h;
+        }
+
+        return h;
+    }
+
+    /**
+     * Get string representation of term
+     * @return string representation of term
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %s", term, explanation);
+    }
+}
@@ -0,0 +1,232 @@
+package dictionary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-through cache of term lookups, in front of a dictionary whose lookups are slow,
+ * like a snapshot file or an off-heap dictionary.
+ * Keeps up to a maximal number of terms and evicts the least recently used one.
+ * Misses are cached too, so repeated lookups of missing terms don't reach the dictionary.
+ *
+ * The cache must be registered as a listener of the changing dictionary,
+ * so added, updated and removed terms are invalidated. Lookups that raced
+ * with an invalidation aren't cached
+ */
+public class TermCache implements TermLookup, TermChangeListener {
+    // Cached value of a term that isn't exists
+    private static final Term MISSING = new Term("", "");
+    // Estimated bytes of an entry besides the text: map entry, term and strings objects
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final TermLookup source;
+    private final int maxSize;
+    private final LinkedHashMap<String, Term> entries;
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long estimatedMemory;
+
+    /**
+     * Initialize cache
+     * @param source where to look up the terms that aren't cached
+     * @param maxSize maximal number of cached terms, including the cached misses
+     */
+    public TermCache(TermLookup source, int maxSize) {
+        if (null == source) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+
+        this.source = source;
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<String, Term>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Term> eldest) {
+                if (size() <= TermCache.this.maxSize) {
+                    return false;
+                }
+
+                ++evictions;
+                estimatedMemory -= estimateMemory(eldest.getKey(), eldest.getValue());
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Find term element, from the cache or from the source
+     * @param term term to find
+     * @return term object, or null if the term isn't exists
+     */
+    @Override
+    public Term findTerm(String term) {
+        long version;
+        synchronized (this) {
+            Term cached = entries.get(term);
+            if (null != cached) {
+                ++hits;
+                return (MISSING == cached) ? null : cached;
+            }
+
+            ++misses;
+            version = invalidations;
+        }
+
+        // Look up outside the lock, slow lookups of different terms don't wait for each other
+        Term found = source.findTerm(term);
+
+        synchronized (this) {
+            // The term may have changed during the lookup
+            if (version == invalidations && !entries.containsKey(term)) {
+                Term value = (null == found) ? MISSING : found;
+                estimatedMemory += estimateMemory(term, value);
+                entries.put(term, value);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Get term element, from the cache or from the source
+     * @param term term to get
+     * @return term object
+     * @throws TermNotExistsException throw when the requested term isn't exists
+     */
+    public Term getTerm(String term) throws TermNotExistsException {
+        Term t = findTerm(term);
+        if (null == t) {
+            throw new TermNotExistsException(term);
+        }
+
+        return t;
+    }
+
+    /**
+     * Checks if term exists
+     * @param term term to search
+     * @return true if the term exists, otherwise false
+     */
+    public boolean isTermExists(String term) {
+        return null != findTerm(term);
+    }
+
+    /**
+     * Remove term from the cache
+     * @param term term to remove
+     */
+    public synchronized void invalidate(String term) {
+        ++invalidations;
+
+        Term removed = entries.remove(term);
+        if (null != removed) {
+            estimatedMemory -= estimateMemory(term, removed);
+        }
+    }
+
+    /**
+     * Remove all the terms from the cache
+     */
+    public synchronized void invalidateAll() {
+        ++invalidations;
+        entries.clear();
+        estimatedMemory = 0;
+    }
+
+    @Override
+    public void termAdded(Term term) {
+        // Removes the cached miss
+        invalidate(term.getTerm());
+    }
+
+    @Override
+    public void termUpdated(Term oldTerm, Term newTerm) {
+        invalidate(newTerm.getTerm());
+    }
+
+    @Override
+    public void termRemoved(Term term) {
+        invalidate(term.getTerm());
+    }
+
+    /**
+     * Get number of cached terms, including the cached misses
+     * @return cached terms count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get number of lookups answered by the cache
+     * @return hits count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Get number of lookups that reached the source
+     * @return misses count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Get the part of the lookups answered by the cache
+     * @return hit ratio between 0 and 1, 0 if there were no lookups
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+
+        return (0 == lookups) ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Get number of terms evicted to keep the cache size
+     * @return evictions count
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Get estimated memory taken by the cached terms
+     * @return estimated bytes
+     */
+    public synchronized long getEstimatedMemory() {
+        return estimatedMemory;
+    }
+
+    /**
+     * Reset the hits, misses and evictions counters
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("TermCache: size=%d/%d hitRatio=%.3f evictions=%d memory=%dKB",
+                entries.size(), maxSize, getHitRatio(), evictions, estimatedMemory / 1024);
+    }
+
+    /**
+     * Estimate memory of cache entry, assuming one byte per character
+     * @param term the key
+     * @param value the cached term
+     * @return estimated bytes
+     */
+    private static long estimateMemory(String term, Term value) {
+        return ENTRY_OVERHEAD + term.length() + value.getExplanation().length();
+    }
+}
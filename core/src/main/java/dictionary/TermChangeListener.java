@@ -0,0 +1,25 @@
+package dictionary;
+
+/**
+ * Listener that is notified on every change of dictionary terms
+ */
+public interface TermChangeListener {
+    /**
+     * Called after term was added to the dictionary
+     * @param term the added term
+     */
+    void termAdded(Term term);
+
+    /**
+     * Called after term explanation was updated
+     * @param oldTerm the term before the update
+     * @param newTerm the term after the update
+     */
+    void termUpdated(Term oldTerm, Term newTerm);
+
+    /**
+     * Called after term was removed from the dictionary
+     * @param term the removed term
+     */
+    void termRemoved(Term term);
+}
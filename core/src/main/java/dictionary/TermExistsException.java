@@ -0,0 +1,28 @@
+package dictionary;
+
+/**
+ * Exception that thrown when program does
+ * wrong action on existed term.
+ * The exception has no stack trace, and its message is built only when requested
+ */
+public class TermExistsException extends Exception {
+    private final String term;
+
+    public TermExistsException(String term) {
+        super(null, null, false, false);
+        this.term = term;
+    }
+
+    /**
+     * Get the term that already exists
+     * @return term
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("The term %s already exists", term);
+    }
+}
@@ -0,0 +1,596 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable compact index of sorted terms, mapping every term to its ordinal
+ * (its index in sorted order) and back. Terms are front coded in buckets of BUCKET_TERMS:
+ * the first term of a bucket is stored whole, and every other term only as the length
+ * of the prefix it shares with the previous term, followed by the rest of it.
+ * Sorted terms share long prefixes, so the index takes a fraction of the memory of
+ * the term strings. The ordinal locates the term explanation in storage kept in the
+ * same order, such as the compressed blocks of CompressedDictionary or the offset
+ * table of a snapshot file.
+ *
+ * Characters are encoded 1 to 3 bytes each, so that comparing the encoded bytes
+ * gives the order of String.compareTo. Lookups compare the encoded term with the
+ * stored bytes without decoding them.
+ */
+public final class TermIndex implements Iterable<String> {
+    // Bigger buckets take less memory, but a lookup scans a whole bucket
+    private static final int BUCKET_TERMS = 16;
+    // Bytes taken by an array besides its elements
+    private static final int ARRAY_OVERHEAD = 16;
+
+    private final byte[] data;
+    private final int[] buckets;
+    private final int size;
+    private final int maxTermLength;
+
+    /**
+     * Initialize index
+     * @param data the front coded terms
+     * @param buckets offset of every bucket in data
+     * @param size number of terms
+     * @param maxTermLength length of the longest encoded term
+     */
+    private TermIndex(byte[] data, int[] buckets, int size, int maxTermLength) {
+        this.data = data;
+        this.buckets = buckets;
+        this.size = size;
+        this.maxTermLength = maxTermLength;
+    }
+
+    /**
+     * Build index of sorted terms, in one pass
+     * @param terms the terms, sorted with no duplicates, such as a DictionarySnapshot
+     * @return index of the terms
+     * @throws IllegalArgumentException thrown when the terms aren't sorted
+     */
+    public static TermIndex build(Iterable<Term> terms) throws IllegalArgumentException {
+        if (null == terms) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        Builder builder = new Builder();
+        for (Term term : terms) {
+            builder.add(term.getTerm());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Build index of the terms of snapshot file, in one pass without loading the snapshot.
+     * The ordinal of a term is its index in the snapshot offset table
+     * @param filePath path of the snapshot file
+     * @return index of the snapshot terms
+     * @throws IOException thrown in case of file error
+     * @throws IllegalArgumentException thrown when the file is with invalid format
+     */
+    public static TermIndex buildFromSnapshotFile(Path filePath) throws IOException, IllegalArgumentException {
+        if (null == filePath) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        Builder builder = new Builder();
+        try (DictionarySnapshotFile.EntryReader in = new DictionarySnapshotFile.EntryReader(filePath)) {
+            int count = in.readHeader();
+            for (int i = 0; i < count; ++i) {
+                builder.add(in.readString());
+                // Skip the explanation
+                in.readString();
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Get number of terms in the index
+     * @return number of terms
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get memory taken by the index
+     * @return bytes of the index arrays
+     */
+    public long getMemorySize() {
+        return 2 * ARRAY_OVERHEAD + data.length + (long) buckets.length * Integer.BYTES;
+    }
+
+    /**
+     * Find ordinal of term
+     * @param term term to find
+     * @return ordinal of the term if it exists, otherwise (-(insertion point) - 1),
+     * where the insertion point is the ordinal of the first greater term, as in Arrays.binarySearch
+     */
+    public int indexOf(String term) {
+        if (null == term) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        byte[] key = new byte[3 * term.length()];
+        int keyLength = encode(term, key);
+
+        // Last bucket whose first term isn't greater than the term
+        int low = 0;
+        int high = buckets.length - 1;
+        int bucket = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = buckets[middle];
+            int length = readLength(position);
+            int cmp = compare(data, lengthEnd(position), length, key, 0, keyLength);
+            if (0 == cmp) {
+                return middle * BUCKET_TERMS;
+            }
+
+            if (cmp < 0) {
+                bucket = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        if (bucket < 0) {
+            return -1;
+        }
+
+        return indexInBucket(bucket, key, keyLength);
+    }
+
+    /**
+     * Get ordinal of the first term that isn't less than given term
+     * @param term the term
+     * @return the ordinal, size() if all the terms are less than the term
+     */
+    public int ceiling(String term) {
+        int index = indexOf(term);
+
+        return (index >= 0) ? index : -index - 1;
+    }
+
+    /**
+     * Get term by ordinal
+     * @param ordinal ordinal of the term
+     * @return the term
+     * @throws IndexOutOfBoundsException thrown when the ordinal is out of range
+     */
+    public String termAt(int ordinal) {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("Ordinal: " + ordinal + ", Size: " + size);
+        }
+
+        Cursor cursor = new Cursor(ordinal);
+        cursor.advance();
+
+        return cursor.term();
+    }
+
+    /**
+     * Get the first terms, in sorted order, that start with given prefix
+     * @param prefix prefix of the terms to get
+     * @param limit maximum number of terms to return
+     * @return up to limit terms starting with prefix, sorted
+     */
+    public List<String> getTermsWithPrefix(String prefix, int limit) {
+        if (null == prefix) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        byte[] key = new byte[3 * prefix.length()];
+        int keyLength = encode(prefix, key);
+
+        List<String> result = new ArrayList<String>();
+        Cursor cursor = new Cursor(ceiling(prefix));
+        while (result.size() < limit && cursor.hasNext()) {
+            cursor.advance();
+            if (cursor.length < keyLength || 0 != compare(cursor.key, 0, keyLength, key, 0, keyLength)) {
+                break;
+            }
+
+            result.add(cursor.term());
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the first terms, in sorted order, in given range
+     * @param from the lowest term of the range, inclusive
+     * @param to the highest term of the range, exclusive
+     * @param limit maximum number of terms to return
+     * @return up to limit terms in the range, sorted
+     */
+    public List<String> getTermsInRange(String from, String to, int limit) {
+        if (null == from || null == to) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        List<String> result = new ArrayList<String>();
+        int end = ceiling(to);
+        Cursor cursor = new Cursor(ceiling(from));
+        while (result.size() < limit && cursor.ordinal < end) {
+            cursor.advance();
+            result.add(cursor.term());
+        }
+
+        return result;
+    }
+
+    /**
+     * Implement index iterator, the iterator doesn't support remove
+     * @return iterator to the terms, in sorted order
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Get iterator of the terms starting at given ordinal
+     * @param ordinal ordinal of the first term to iterate
+     * @return iterator to the terms, in sorted order
+     */
+    public Iterator<String> iterator(int ordinal) {
+        if (ordinal < 0 || ordinal > size) {
+            throw new IndexOutOfBoundsException("Ordinal: " + ordinal + ", Size: " + size);
+        }
+
+        Cursor cursor = new Cursor(ordinal);
+
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!cursor.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                cursor.advance();
+
+                return cursor.term();
+            }
+        };
+    }
+
+    /**
+     * Find term in bucket, scanning the bucket without decoding its terms.
+     * The terms are increasing, so a term that shares more with the previous term
+     * than the previous term shares with the key is less than the key too,
+     * and a term that shares less is greater than the key
+     * @param bucket index of the bucket
+     * @param key the encoded term
+     * @param keyLength length of the encoded term
+     * @return ordinal of the term, or (-(insertion point) - 1)
+     */
+    private int indexInBucket(int bucket, byte[] key, int keyLength) {
+        int position = buckets[bucket];
+        int length = readLength(position);
+        position = lengthEnd(position);
+        int matched = commonPrefix(data, position, length, key, 0, keyLength);
+        position += length;
+
+        int ordinal = bucket * BUCKET_TERMS + 1;
+        int end = Math.min(ordinal - 1 + BUCKET_TERMS, size);
+        for (; ordinal < end; ++ordinal) {
+            int shared = readLength(position);
+            position = lengthEnd(position);
+            int suffixLength = readLength(position);
+            position = lengthEnd(position);
+
+            if (shared < matched) {
+                return -ordinal - 1;
+            }
+
+            if (shared == matched) {
+                int common = commonPrefix(data, position, suffixLength, key, matched, keyLength - matched);
+                if (common == suffixLength && matched + common == keyLength) {
+                    return ordinal;
+                }
+
+                // Greater if the key ended first or has the lower byte
+                if (matched + common == keyLength
+                        || (common < suffixLength && (data[position + common] & 0xFF) > (key[matched + common] & 0xFF))) {
+                    return -ordinal - 1;
+                }
+
+                matched += common;
+            }
+
+            position += suffixLength;
+        }
+
+        return -end - 1;
+    }
+
+    /**
+     * Read varint length from the data
+     * @param position position of the length
+     * @return the length
+     */
+    private int readLength(int position) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    /**
+     * Get the position after varint length in the data
+     * @param position position of the length
+     * @return the position after the length
+     */
+    private int lengthEnd(int position) {
+        while (data[position] < 0) {
+            ++position;
+        }
+
+        return position + 1;
+    }
+
+    /**
+     * Encode term so that unsigned byte order is the order of String.compareTo.
+     * Every char is encoded on its own, as UTF-8 would encode it
+     * @param term the term
+     * @param out where to write, at least 3 bytes per char
+     * @return the encoded length
+     */
+    private static int encode(String term, byte[] out) {
+        int length = 0;
+        for (int i = 0; i < term.length(); ++i) {
+            char c = term.charAt(i);
+            if (c < 0x80) {
+                out[length++] = (byte) c;
+            } else if (c < 0x800) {
+                out[length++] = (byte) (0xC0 | c >>> 6);
+                out[length++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                out[length++] = (byte) (0xE0 | c >>> 12);
+                out[length++] = (byte) (0x80 | c >>> 6 & 0x3F);
+                out[length++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Decode encoded term
+     * @param bytes the encoded term
+     * @param length length of the encoded term
+     * @return the term
+     */
+    private static String decode(byte[] bytes, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        int i = 0;
+        while (i < length) {
+            int b = bytes[i++] & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | bytes[i++] & 0x3F);
+            } else {
+                chars[count++] = (char) ((b & 0x0F) << 12 | (bytes[i] & 0x3F) << 6 | bytes[i + 1] & 0x3F);
+                i += 2;
+            }
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * Get length of the common prefix of two byte ranges
+     * @param first the first bytes
+     * @param firstStart start of the first range
+     * @param firstLength length of the first range
+     * @param second the second bytes
+     * @param secondStart start of the second range
+     * @param secondLength length of the second range
+     * @return the common length
+     */
+    private static int commonPrefix(byte[] first, int firstStart, int firstLength,
+                                    byte[] second, int secondStart, int secondLength) {
+        int max = Math.min(firstLength, secondLength);
+        int length = 0;
+        while (length < max && first[firstStart + length] == second[secondStart + length]) {
+            ++length;
+        }
+
+        return length;
+    }
+
+    /**
+     * Compare two byte ranges, unsigned
+     * @param first the first bytes
+     * @param firstStart start of the first range
+     * @param firstLength length of the first range
+     * @param second the second bytes
+     * @param secondStart start of the second range
+     * @param secondLength length of the second range
+     * @return negative, zero or positive number as the first range is less, equal or greater
+     */
+    private static int compare(byte[] first, int firstStart, int firstLength,
+                               byte[] second, int secondStart, int secondLength) {
+        int common = commonPrefix(first, firstStart, firstLength, second, secondStart, secondLength);
+        if (common == firstLength || common == secondLength) {
+            return firstLength - secondLength;
+        }
+
+        return (first[firstStart + common] & 0xFF) - (second[secondStart + common] & 0xFF);
+    }
+
+    /**
+     * Sequential decoder of the terms, holds the last decoded term
+     */
+    private class Cursor {
+        private final byte[] key;
+        private int length;
+        // Ordinal of the next term
+        private int ordinal;
+        private int position;
+
+        /**
+         * Initialize cursor before given ordinal
+         * @param ordinal ordinal of the first term to decode
+         */
+        Cursor(int ordinal) {
+            key = new byte[maxTermLength];
+
+            // Decode from the start of the bucket, up to the term before the ordinal
+            this.ordinal = ordinal - ordinal % BUCKET_TERMS;
+            if (this.ordinal < size) {
+                position = buckets[this.ordinal / BUCKET_TERMS];
+            }
+            while (this.ordinal < ordinal) {
+                advance();
+            }
+        }
+
+        /**
+         * Check if there are more terms
+         * @return true if there is a next term, otherwise false
+         */
+        boolean hasNext() {
+            return ordinal < size;
+        }
+
+        /**
+         * Decode the next term into the key
+         */
+        void advance() {
+            int shared = 0;
+            if (0 != ordinal % BUCKET_TERMS) {
+                shared = readLength(position);
+                position = lengthEnd(position);
+            }
+
+            int suffixLength = readLength(position);
+            position = lengthEnd(position);
+            System.arraycopy(data, position, key, shared, suffixLength);
+            position += suffixLength;
+
+            length = shared + suffixLength;
+            ++ordinal;
+        }
+
+        /**
+         * Get the last decoded term
+         * @return the term
+         */
+        String term() {
+            return decode(key, length);
+        }
+    }
+
+    /**
+     * Builder of index, gets the terms in sorted order
+     */
+    static class Builder {
+        private byte[] data = new byte[1024];
+        private int dataLength;
+        private int[] buckets = new int[16];
+        private int size;
+        private byte[] previous = new byte[0];
+        private int previousLength;
+        private byte[] key = new byte[0];
+        private int maxTermLength;
+
+        /**
+         * Add the next term
+         * @param term the term, greater than the previous term
+         * @throws IllegalArgumentException thrown when the term isn't greater than the previous term
+         */
+        void add(String term) throws IllegalArgumentException {
+            if (key.length < 3 * term.length()) {
+                key = new byte[3 * term.length()];
+            }
+            int keyLength = encode(term, key);
+
+            int shared = 0;
+            if (size > 0) {
+                if (compare(key, 0, keyLength, previous, 0, previousLength) <= 0) {
+                    throw new IllegalArgumentException("Terms not sorted: " + term);
+                }
+
+                shared = commonPrefix(key, 0, keyLength, previous, 0, previousLength);
+            }
+
+            ensureData(10 + keyLength);
+            if (0 == size % BUCKET_TERMS) {
+                if (buckets.length == size / BUCKET_TERMS) {
+                    buckets = Arrays.copyOf(buckets, 2 * buckets.length);
+                }
+
+                buckets[size / BUCKET_TERMS] = dataLength;
+                shared = 0;
+            } else {
+                putLength(shared);
+            }
+
+            putLength(keyLength - shared);
+            System.arraycopy(key, shared, data, dataLength, keyLength - shared);
+            dataLength += keyLength - shared;
+
+            // The key becomes the previous term
+            byte[] swap = previous;
+            previous = key;
+            previousLength = keyLength;
+            key = swap;
+
+            maxTermLength = Math.max(maxTermLength, keyLength);
+            ++size;
+        }
+
+        /**
+         * Build the index of the added terms
+         * @return the index
+         */
+        TermIndex build() {
+            return new TermIndex(Arrays.copyOf(data, dataLength),
+                    Arrays.copyOf(buckets, (size + BUCKET_TERMS - 1) / BUCKET_TERMS), size, maxTermLength);
+        }
+
+        /**
+         * Make sure the data has room for given number of bytes
+         * @param length number of bytes to add
+         */
+        private void ensureData(int length) {
+            if (dataLength + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(2 * data.length, dataLength + length));
+            }
+        }
+
+        /**
+         * Write varint length to the data
+         * @param length the length
+         */
+        private void putLength(int length) {
+            while (length >= 0x80) {
+                data[dataLength++] = (byte) (length | 0x80);
+                length >>>= 7;
+            }
+            data[dataLength++] = (byte) length;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dictionary;
+
+/**
+ * Source of dictionary terms that can be looked up by term
+ */
+public interface TermLookup {
+    /**
+     * Find term element, without throwing when it isn't exists
+     * @param term term to find
+     * @return term object, or null if the term isn't exists
+     */
+    Term findTerm(String term);
+}
@@ -0,0 +1,28 @@
+package dictionary;
+
+/**
+ * Exception that thrown when program does
+ * wrong action on term that not exists.
+ * The exception has no stack trace, and its message is built only when requested
+ */
+public class TermNotExistsException extends Exception {
+    private final String term;
+
+    public TermNotExistsException(String term) {
+        super(null, null, false, false);
+        this.term = term;
+    }
+
+    /**
+     * Get the term that not exists
+     * @return term
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("The term %s not exists", term);
+    }
+}
@@ -0,0 +1,93 @@
+package dictionary;
+
+/**
+ * Represent a single change of a dictionary batch
+ */
+public class TermOperation {
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+
+    private final Type type;
+    private final String term;
+    private final String explanation;
+
+    /**
+     * Initialize operation
+     * @param type kind of change
+     * @param term term to change
+     * @param explanation new explanation, null for remove
+     */
+    private TermOperation(Type type, String term, String explanation) {
+        if (null == term || (Type.REMOVE != type && null == explanation)) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        this.type = type;
+        this.term = term;
+        this.explanation = explanation;
+    }
+
+    /**
+     * Create operation that adds new term
+     * @param term term to add
+     * @param explanation term explanation
+     * @return the operation
+     */
+    public static TermOperation add(String term, String explanation) {
+        return new TermOperation(Type.ADD, term, explanation);
+    }
+
+    /**
+     * Create operation that updates existing term
+     * @param term term to update
+     * @param explanation new explanation
+     * @return the operation
+     */
+    public static TermOperation update(String term, String explanation) {
+        return new TermOperation(Type.UPDATE, term, explanation);
+    }
+
+    /**
+     * Create operation that removes existing term
+     * @param term term to remove
+     * @return the operation
+     */
+    public static TermOperation remove(String term) {
+        return new TermOperation(Type.REMOVE, term, null);
+    }
+
+    /**
+     * Get kind of change
+     * @return operation type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the changed term
+     * @return term
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    /**
+     * Get the new explanation
+     * @return explanation, null for remove
+     */
+    public String getExplanation() {
+        return explanation;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + term;
+    }
+}
@@ -0,0 +1,84 @@
+package dictionary;
+
+import java.util.Iterator;
+
+/**
+ * Sorted storage of the dictionary terms, keyed by term.
+ * Every change is a single lookup of the term, and is atomic if the storage is thread safe
+ */
+interface TermStore {
+    /**
+     * Get term
+     * @param term the term to get
+     * @return the term, or null if it isn't stored
+     */
+    Term get(String term);
+
+    /**
+     * Add term if it isn't stored
+     * @param term the term to add
+     * @return the stored term, or null if the term was added
+     */
+    Term putIfAbsent(Term term);
+
+    /**
+     * Replace stored term
+     * @param term the new term
+     * @return the replaced term, or null if the term isn't stored and nothing was changed
+     */
+    Term replace(Term term);
+
+    /**
+     * Replace stored term only if it's equal to given term
+     * @param oldTerm the expected stored term
+     * @param newTerm the new term, with the same key
+     * @return true if the term was replaced
+     */
+    boolean replace(Term oldTerm, Term newTerm);
+
+    /**
+     * Remove term
+     * @param term the term to remove
+     * @return the removed term, or null if the term isn't stored
+     */
+    Term remove(String term);
+
+    /**
+     * Get number of stored terms
+     * @return number of terms
+     */
+    int size();
+
+    /**
+     * Get the smallest stored term
+     * @return the term, or null if nothing is stored
+     */
+    String firstKey();
+
+    /**
+     * Get the smallest stored term that isn't smaller than key
+     * @param key the key
+     * @return the term, or null if there is none
+     */
+    String ceilingKey(String key);
+
+    /**
+     * Get the smallest stored term greater than key
+     * @param key the key
+     * @return the term, or null if there is none
+     */
+    String higherKey(String key);
+
+    /**
+     * Get read-only iterator of the terms, in sorted order
+     * @param fromKey the first term to iterate, inclusive, null to iterate from the start
+     * @return the iterator
+     */
+    Iterator<Term> iterator(String fromKey);
+
+    /**
+     * Get read-only view of the stored terms at this point in time, not affected by later changes
+     * @return the snapshot
+     */
+    DictionarySnapshot snapshot();
+}
@@ -0,0 +1,102 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dictionary.DictionaryFileParserTest.assertTermsEqual;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedDictionaryTest {
+    @TempDir
+    Path directory;
+
+    private static Dictionary sample(int count) throws TermExistsException {
+        Dictionary dictionary = new Dictionary();
+        for (int i = 0; i < count; ++i) {
+            dictionary.addTerm(String.format("term%05d", i), "explanation of term " + (i % 17) + " é " + i);
+        }
+
+        return dictionary;
+    }
+
+    @Test
+    void storesAndCompresses() throws Exception {
+        Dictionary expected = sample(1003);
+        expected.addTerm("empty", "");
+        CompressedDictionary dictionary = CompressedDictionary.create(expected);
+
+        assertTermsEqual(expected, dictionary);
+        assertEquals(expected.size(), dictionary.size());
+        for (Term term : expected) {
+            assertEquals(term.getExplanation(), dictionary.getTerm(term.getTerm()).getExplanation());
+        }
+        assertTrue(dictionary.getCompressedSize() < dictionary.getUncompressedSize());
+
+        assertEquals(0, CompressedDictionary.create(new Dictionary()).size());
+    }
+
+    @Test
+    void mergesChangesWithStoredTerms() throws Exception {
+        Dictionary expected = sample(100);
+        CompressedDictionary dictionary = CompressedDictionary.create(expected);
+
+        dictionary.addTerm("added", "new");
+        dictionary.updateTerm("term00005", "updated");
+        dictionary.removeTerm("term00007");
+        dictionary.addTerm("term00007", "added again");
+        dictionary.removeTerm("term00009");
+        expected.addTerm("added", "new");
+        expected.updateTerm("term00005", "updated");
+        expected.updateTerm("term00007", "added again");
+        expected.removeTerm("term00009");
+
+        assertTermsEqual(expected, dictionary);
+        assertEquals(expected.size(), dictionary.size());
+        assertNull(dictionary.findTerm("term00009"));
+        assertFalse(dictionary.isTermExists("term00009"));
+        assertThrows(TermExistsException.class, () -> dictionary.addTerm("added", "x"));
+        assertThrows(TermNotExistsException.class, () -> dictionary.removeTerm("term00009"));
+
+        dictionary.compact();
+        assertTermsEqual(expected, dictionary);
+
+        Path text = directory.resolve("dictionary.txt");
+        dictionary.exportToFile(text);
+        assertTermsEqual(expected, Dictionary.createDictionaryFromFile(text));
+    }
+
+    @Test
+    void readsWhileChanging() throws Exception {
+        CompressedDictionary dictionary = CompressedDictionary.create(sample(2000));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 3000 && running.get(); ++i) {
+                    dictionary.addTerm("added" + i, "e");
+                }
+            } catch (TermExistsException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writer.start();
+
+        try {
+            for (int round = 0; round < 10; ++round) {
+                // Stored explanations are decompressed right, whatever the writer and the compaction do
+                for (int i = 0; i < 2000; i += 7) {
+                    assertTrue(dictionary.getTerm(String.format("term%05d", i)).getExplanation().endsWith(" " + i));
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
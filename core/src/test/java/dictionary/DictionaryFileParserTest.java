@@ -0,0 +1,95 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DictionaryFileParserTest {
+    @TempDir
+    Path directory;
+
+    private static List<Term> parse(String input) throws IOException {
+        DictionaryFileParser parser = new DictionaryFileParser(new StringReader(input));
+        List<Term> terms = new ArrayList<Term>();
+        Term term = parser.nextTerm();
+        while (null != term) {
+            terms.add(term);
+            term = parser.nextTerm();
+        }
+
+        return terms;
+    }
+
+    @Test
+    void parsesSingleAndMultiLineTerms() throws IOException {
+        List<Term> terms = parse("<AAA>ZZZ</AAA>\n<Multi>\nfirst\nsecond\n</Multi>\n");
+
+        assertEquals(Arrays.asList(new Term("AAA", "ZZZ"), new Term("Multi", "first\nsecond")), terms);
+    }
+
+    @Test
+    void keepsLessThanInExplanation() throws IOException {
+        assertEquals(Arrays.asList(new Term("a", "1 < 2")), parse("<a>1 < 2</a>"));
+    }
+
+    @Test
+    void emptyOrWhitespaceInputHasNoTerms() throws IOException {
+        assertNull(new DictionaryFileParser(new StringReader("")).nextTerm());
+        assertNull(new DictionaryFileParser(new StringReader(" \r\n\t\n")).nextTerm());
+    }
+
+    @Test
+    void rejectsTextOutsideTerms() {
+        assertThrows(IllegalArgumentException.class, () -> parse("garbage<a>b</a>"));
+        assertThrows(IllegalArgumentException.class, () -> parse("<a>b</a> x <c>d</c>"));
+        assertThrows(IllegalArgumentException.class, () -> parse("<a>b</a>\ntrailing"));
+    }
+
+    @Test
+    void rejectsBrokenTags() {
+        assertThrows(IllegalArgumentException.class, () -> parse("<a>b</c>"));
+        assertThrows(IllegalArgumentException.class, () -> parse("<a>b</ab>"));
+        assertThrows(IllegalArgumentException.class, () -> parse("<a>b"));
+        assertThrows(IllegalArgumentException.class, () -> parse("<a"));
+        assertThrows(IllegalArgumentException.class, () -> parse("<a>b</a"));
+    }
+
+    @Test
+    void rejectsDuplicateTerms() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Dictionary.createDictionaryFromFile(new StringReader("<a>1</a><a>2</a>")));
+    }
+
+    @Test
+    void exportRoundTrip() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        dictionary.addTerm("one", "first");
+        dictionary.addTerm("two", "multi\nline");
+        dictionary.addTerm("שלום", "unicode é");
+        Path file = directory.resolve("dictionary.txt");
+
+        dictionary.exportToFile(file);
+
+        assertTermsEqual(dictionary, Dictionary.createDictionaryFromFile(file));
+        assertTermsEqual(dictionary, Dictionary.createDictionaryFromFileParallel(file, 2));
+    }
+
+    static void assertTermsEqual(Iterable<Term> expected, Iterable<Term> actual) {
+        List<Term> expectedTerms = new ArrayList<Term>();
+        expected.forEach(expectedTerms::add);
+        List<Term> actualTerms = new ArrayList<Term>();
+        actual.forEach(actualTerms::add);
+
+        assertEquals(expectedTerms, actualTerms);
+    }
+}
@@ -0,0 +1,154 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static dictionary.DictionaryFileParserTest.assertTermsEqual;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionaryJournalTest {
+    @TempDir
+    Path directory;
+
+    private Path basePath() {
+        return directory.resolve("dictionary.snap");
+    }
+
+    private Path journalPath() {
+        return directory.resolve("dictionary.journal");
+    }
+
+    private DictionaryJournal open() throws IOException {
+        return DictionaryJournal.open(basePath(), journalPath());
+    }
+
+    private static void change(Dictionary dictionary, Dictionary expected, int from, int to) throws Exception {
+        for (int i = from; i < to; ++i) {
+            dictionary.addTerm("term" + i, "explanation " + i + " é");
+            expected.addTerm("term" + i, "explanation " + i + " é");
+        }
+
+        dictionary.updateTerm("term" + from, "updated");
+        expected.updateTerm("term" + from, "updated");
+        dictionary.removeTerm("term" + (from + 1));
+        expected.removeTerm("term" + (from + 1));
+    }
+
+    @Test
+    void replaysChanges() throws Exception {
+        Dictionary expected = new Dictionary();
+        try (DictionaryJournal journal = open()) {
+            change(journal.getDictionary(), expected, 0, 100);
+        }
+
+        try (DictionaryJournal journal = open()) {
+            assertTermsEqual(expected, journal.getDictionary());
+            change(journal.getDictionary(), expected, 100, 200);
+        }
+
+        try (DictionaryJournal journal = open()) {
+            assertTermsEqual(expected, journal.getDictionary());
+        }
+    }
+
+    @Test
+    void discardsTornRecord() throws Exception {
+        Dictionary expected = new Dictionary();
+        try (DictionaryJournal journal = open()) {
+            change(journal.getDictionary(), expected, 0, 10);
+        }
+
+        long length = Files.size(journalPath());
+        // A record cut in the middle of its write
+        Files.write(journalPath(), new byte[] {0, 0, 0, 50, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (DictionaryJournal journal = open()) {
+            assertTermsEqual(expected, journal.getDictionary());
+            assertEquals(length, Files.size(journalPath()));
+            change(journal.getDictionary(), expected, 10, 20);
+        }
+
+        try (DictionaryJournal journal = open()) {
+            assertTermsEqual(expected, journal.getDictionary());
+        }
+    }
+
+    @Test
+    void compactsIntoBase() throws Exception {
+        Dictionary expected = new Dictionary();
+        try (DictionaryJournal journal = open()) {
+            change(journal.getDictionary(), expected, 0, 100);
+            journal.compact();
+            change(journal.getDictionary(), expected, 100, 110);
+            journal.waitForCompaction();
+        }
+
+        assertTrue(DictionarySnapshotFile.isSnapshotFile(basePath()));
+        assertFalse(Files.exists(directory.resolve("dictionary.journal.compacting")));
+        try (DictionaryJournal journal = open()) {
+            assertTermsEqual(expected, journal.getDictionary());
+        }
+    }
+
+    @Test
+    void recoversUnfinishedCompaction() throws Exception {
+        Dictionary expected = new Dictionary();
+        try (DictionaryJournal journal = open()) {
+            change(journal.getDictionary(), expected, 0, 50);
+        }
+
+        // Crash after the journal was set aside, before the base was written
+        Files.move(journalPath(), directory.resolve("dictionary.journal.compacting"));
+        try (DictionaryJournal journal = open()) {
+            change(journal.getDictionary(), expected, 50, 60);
+        }
+        Files.move(journalPath(), directory.resolve("dictionary.journal.compacting"));
+        Files.write(journalPath(), new byte[0]);
+
+        try (DictionaryJournal journal = open()) {
+            assertTermsEqual(expected, journal.getDictionary());
+            assertFalse(Files.exists(directory.resolve("dictionary.journal.compacting")));
+            assertTrue(Files.exists(basePath()));
+        }
+
+        try (DictionaryJournal journal = open()) {
+            assertTermsEqual(expected, journal.getDictionary());
+        }
+    }
+
+    @Test
+    void failedCompactionKeepsRecords() throws Exception {
+        // The base can't be written while a directory takes the place of its temporary file
+        Path obstacle = Files.createDirectory(directory.resolve("dictionary.snap.tmp"));
+        Dictionary expected = new Dictionary();
+
+        DictionaryJournal journal = open();
+        change(journal.getDictionary(), expected, 0, 50);
+        journal.compact();
+        assertThrows(IOException.class, journal::waitForCompaction);
+
+        change(journal.getDictionary(), expected, 50, 100);
+        journal.compact();
+        change(journal.getDictionary(), expected, 100, 110);
+        assertThrows(IOException.class, journal::close);
+
+        Files.delete(obstacle);
+        try (DictionaryJournal reopened = open()) {
+            assertTermsEqual(expected, reopened.getDictionary());
+            change(reopened.getDictionary(), expected, 110, 120);
+            reopened.compact();
+        }
+
+        try (DictionaryJournal reopened = open()) {
+            assertTermsEqual(expected, reopened.getDictionary());
+        }
+    }
+}
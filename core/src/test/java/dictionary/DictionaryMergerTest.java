@@ -0,0 +1,140 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static dictionary.DictionaryFileParserTest.assertTermsEqual;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DictionaryMergerTest {
+    @TempDir
+    Path directory;
+
+    private static Dictionary sample(int from, int to, String explanation) throws TermExistsException {
+        Dictionary dictionary = new Dictionary();
+        for (int i = from; i < to; ++i) {
+            dictionary.addTerm(String.format("term%04d", i), explanation + " " + i + " é\nsecond line");
+        }
+
+        return dictionary;
+    }
+
+    private Path text(String name, Dictionary dictionary) throws Exception {
+        Path path = directory.resolve(name);
+        dictionary.exportToFile(path);
+
+        return path;
+    }
+
+    private Path snapshot(String name, Dictionary dictionary) throws Exception {
+        Path path = directory.resolve(name);
+        DictionarySnapshotFile.write(dictionary, path);
+
+        return path;
+    }
+
+    @Test
+    void mergesTextAndSnapshotSources() throws Exception {
+        Dictionary first = sample(0, 600, "first");
+        Dictionary second = sample(400, 1000, "second");
+        Path firstPath = text("first.txt", first);
+        Path secondPath = snapshot("second.snap", second);
+        Path output = directory.resolve("merged.txt");
+
+        DictionaryMerger merger = new DictionaryMerger(DictionaryMerger.ConflictPolicy.FIRST_WINS);
+        // Small runs, so the text source is sorted in several runs
+        merger.setMaxRunBytes(10 * 1024);
+        merger.setTemporaryDirectory(directory);
+
+        assertEquals(1000, merger.merge(List.of(firstPath, secondPath), output));
+        Dictionary expected = sample(0, 1000, "second");
+        for (Term term : first) {
+            expected.updateTerm(term.getTerm(), term.getExplanation());
+        }
+        assertTermsEqual(expected, Dictionary.createDictionaryFromFile(output));
+
+        new DictionaryMerger(DictionaryMerger.ConflictPolicy.LAST_WINS).merge(List.of(firstPath, secondPath), output);
+        assertEquals("second 500 é\nsecond line",
+                Dictionary.createDictionaryFromFile(output).getTerm("term0500").getExplanation());
+
+        new DictionaryMerger(DictionaryMerger.ConflictPolicy.CONCATENATE).merge(List.of(firstPath, secondPath), output);
+        assertEquals("first 500 é\nsecond line\nsecond 500 é\nsecond line",
+                Dictionary.createDictionaryFromFile(output).getTerm("term0500").getExplanation());
+        assertEquals(List.of("first.txt", "merged.txt", "second.snap"), files());
+    }
+
+    @Test
+    void mergesIntoSource() throws Exception {
+        Path firstPath = text("first.txt", sample(0, 300, "first"));
+        Path secondPath = text("second.txt", sample(200, 500, "second"));
+
+        long count = new DictionaryMerger(DictionaryMerger.ConflictPolicy.LAST_WINS)
+                .merge(List.of(firstPath, secondPath), firstPath);
+
+        assertEquals(500, count);
+        Dictionary expected = sample(0, 200, "first");
+        for (Term term : sample(200, 500, "second")) {
+            expected.addTerm(term);
+        }
+        assertTermsEqual(expected, Dictionary.createDictionaryFromFile(firstPath));
+    }
+
+    @Test
+    void failedMergeKeepsOutput() throws Exception {
+        Path firstPath = text("first.txt", sample(0, 10, "first"));
+        Path secondPath = text("second.txt", sample(5, 15, "second"));
+        Path output = text("merged.txt", sample(0, 3, "old"));
+
+        DictionaryMerger merger = new DictionaryMerger(DictionaryMerger.ConflictPolicy.FAIL);
+
+        assertThrows(IllegalArgumentException.class, () -> merger.merge(List.of(firstPath, secondPath), output));
+        assertTermsEqual(sample(0, 3, "old"), Dictionary.createDictionaryFromFile(output));
+        assertEquals(List.of("first.txt", "merged.txt", "second.txt"), files());
+    }
+
+    @Test
+    void reportsDifferences() throws Exception {
+        Dictionary oldDictionary = sample(0, 20, "e");
+        Dictionary newDictionary = sample(5, 25, "e");
+        newDictionary.updateTerm("term0010", "changed");
+        List<String> changes = new ArrayList<String>();
+
+        new DictionaryMerger(DictionaryMerger.ConflictPolicy.FAIL).diff(text("old.txt", oldDictionary),
+                snapshot("new.snap", newDictionary), new TermChangeListener() {
+                    @Override
+                    public void termAdded(Term term) {
+                        changes.add("+" + term.getTerm());
+                    }
+
+                    @Override
+                    public void termUpdated(Term oldTerm, Term newTerm) {
+                        changes.add("*" + newTerm.getTerm() + "=" + newTerm.getExplanation());
+                    }
+
+                    @Override
+                    public void termRemoved(Term term) {
+                        changes.add("-" + term.getTerm());
+                    }
+                });
+
+        assertEquals(List.of("-term0000", "-term0001", "-term0002", "-term0003", "-term0004",
+                "*term0010=changed", "+term0020", "+term0021", "+term0022", "+term0023", "+term0024"), changes);
+    }
+
+    private List<String> files() throws Exception {
+        List<String> names = new ArrayList<String>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> names.add(path.getFileName().toString()));
+        }
+        names.sort(null);
+
+        return names;
+    }
+}
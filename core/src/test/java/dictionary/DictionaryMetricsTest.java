@@ -0,0 +1,112 @@
+package dictionary;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DictionaryMetricsTest {
+    private static final DictionaryMetrics METRICS = DictionaryMetrics.getInstance();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void enable() {
+        METRICS.reset();
+        METRICS.setEnabled(true);
+    }
+
+    @AfterEach
+    void disable() {
+        METRICS.setEnabled(false);
+        METRICS.reset();
+    }
+
+    private static void assertCounts(DictionaryMetrics.Operation operation, long count, long failures) {
+        assertEquals(count, METRICS.getCount(operation), operation.name());
+        assertEquals(failures, METRICS.getFailureCount(operation), operation.name());
+    }
+
+    @Test
+    void recordsEveryOperationOnce() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        dictionary.addTerm("a", "1");
+        assertThrows(TermExistsException.class, () -> dictionary.addTerm("a", "2"));
+        dictionary.updateTerm("a", "3");
+        assertThrows(TermNotExistsException.class, () -> dictionary.updateTerm("b", "3"));
+        dictionary.updateTerm(dictionary.getTerm("a"), "4");
+        dictionary.removeTerm("a");
+        assertThrows(TermNotExistsException.class, () -> dictionary.removeTerm("a"));
+
+        assertCounts(DictionaryMetrics.Operation.ADD_TERM, 2, 1);
+        assertCounts(DictionaryMetrics.Operation.UPDATE_TERM, 3, 1);
+        assertCounts(DictionaryMetrics.Operation.REMOVE_TERM, 2, 1);
+        // Only the explicit getTerm is a lookup
+        assertCounts(DictionaryMetrics.Operation.GET_TERM, 1, 0);
+    }
+
+    @Test
+    void recordsBatchOperations() {
+        List<TermOperation> operations = List.of(TermOperation.add("a", "1"), TermOperation.add("a", "2"),
+                TermOperation.update("a", "3"), TermOperation.remove("b"));
+
+        new Dictionary().applyBatch(operations);
+        new ConcurrentDictionary().applyBatch(operations);
+
+        assertCounts(DictionaryMetrics.Operation.ADD_TERM, 4, 2);
+        assertCounts(DictionaryMetrics.Operation.UPDATE_TERM, 2, 0);
+        assertCounts(DictionaryMetrics.Operation.REMOVE_TERM, 2, 2);
+        assertCounts(DictionaryMetrics.Operation.GET_TERM, 0, 0);
+    }
+
+    @Test
+    void recordsImportAndExportSizes() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        dictionary.addTerm("term", "explanation é");
+        dictionary.addTerm("other", "multi\nline");
+        Path file = directory.resolve("dictionary.txt");
+        METRICS.reset();
+
+        try (FileWriter writer = new FileWriter(file.toFile(), StandardCharsets.UTF_8)) {
+            dictionary.exportToFile(writer);
+        }
+        assertCounts(DictionaryMetrics.Operation.EXPORT, 1, 0);
+        assertEquals(2, METRICS.getExportedTermCount());
+        // Writers and readers are measured in characters
+        long charsCount = Files.readString(file, StandardCharsets.UTF_8).length();
+        assertEquals(charsCount, METRICS.getExportedByteCount());
+
+        try (Scanner scanner = new Scanner(file, StandardCharsets.UTF_8)) {
+            Dictionary.createDictionaryFromFile(scanner);
+        }
+        assertCounts(DictionaryMetrics.Operation.IMPORT, 1, 0);
+        assertCounts(DictionaryMetrics.Operation.ADD_TERM, 0, 0);
+        assertEquals(2, METRICS.getImportedTermCount());
+        assertEquals(charsCount, METRICS.getImportedByteCount());
+
+        try (FileReader reader = new FileReader(file.toFile(), StandardCharsets.UTF_8)) {
+            Dictionary.createDictionaryFromFile(reader);
+        }
+        assertEquals(4, METRICS.getImportedTermCount());
+        assertEquals(2 * charsCount, METRICS.getImportedByteCount());
+
+        // Files are measured in bytes
+        METRICS.reset();
+        dictionary.exportToFile(file);
+        Dictionary.createDictionaryFromFile(file);
+        assertEquals(Files.size(file), METRICS.getExportedByteCount());
+        assertEquals(Files.size(file), METRICS.getImportedByteCount());
+    }
+}
@@ -0,0 +1,79 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DictionaryServerTest {
+    @Test
+    void servesPipelinedRequests() throws Exception {
+        try (DictionaryServer server = new DictionaryServer(new ConcurrentDictionary(),
+                InetAddress.getLoopbackAddress(), 0);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            out.write("ADD\tterm\tfirst\\nline\tand tab\n"
+                    + "ADD\tterm\tfirst\\nline\\tand tab\n"
+                    + "ADD\tterm\tagain\n"
+                    + "GET\tterm\n"
+                    + "MGET\tterm\tmissing\n"
+                    + "HAS\tmissing\n"
+                    + "UPDATE\tterm\té\n"
+                    + "PREFIX\t10\tte\n"
+                    + "REMOVE\tterm\n"
+                    + "GET\t\\N\n"
+                    + "HAS\t\\N\n"
+                    + "MGET\tterm\t\\N\n"
+                    + "ADD\t\\N\tx\n"
+                    + "SIZE\n"
+                    + "QUIT\n");
+            out.flush();
+
+            assertEquals("ERROR\tWrong number of arguments", in.readLine());
+            assertEquals("OK", in.readLine());
+            assertEquals("ERROR", in.readLine().split("\t")[0]);
+            assertEquals("OK\tfirst\\nline\\tand tab", in.readLine());
+            assertEquals("OK\tfirst\\nline\\tand tab\t\\N", in.readLine());
+            assertEquals("FALSE", in.readLine());
+            assertEquals("OK", in.readLine());
+            assertEquals("OK\tterm", in.readLine());
+            assertEquals("OK", in.readLine());
+            // The missing value isn't a term, and doesn't end the connection
+            for (int i = 0; i < 4; ++i) {
+                assertEquals("ERROR\tMissing argument value", in.readLine());
+            }
+            assertEquals("OK\t0", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    void closeEndsOpenConnections() throws Exception {
+        DictionaryServer server = new DictionaryServer(new ConcurrentDictionary(), InetAddress.getLoopbackAddress(), 0);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            out.write("SIZE\n");
+            out.flush();
+            assertEquals("OK\t0", in.readLine());
+
+            socket.setSoTimeout(10000);
+            server.close();
+            server.join();
+
+            // The server side of the connection is closed, not left blocked on a read
+            assertNull(in.readLine());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dictionary.DictionaryFileParserTest.assertTermsEqual;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionarySnapshotFileTest {
+    @TempDir
+    Path directory;
+
+    private static Dictionary sample(int count) throws TermExistsException {
+        Dictionary dictionary = new Dictionary();
+        for (int i = 0; i < count; ++i) {
+            dictionary.addTerm("term" + i, "explanation of " + i + " é\nsecond line");
+        }
+
+        return dictionary;
+    }
+
+    @Test
+    void writeReadRoundTrip() throws Exception {
+        Dictionary dictionary = sample(1000);
+        Path file = directory.resolve("dictionary.snap");
+
+        DictionarySnapshotFile.write(dictionary, file);
+
+        assertTrue(DictionarySnapshotFile.isSnapshotFile(file));
+        assertTermsEqual(dictionary, DictionarySnapshotFile.read(file));
+    }
+
+    @Test
+    void readFromChannel() throws Exception {
+        Dictionary dictionary = sample(1000);
+        Path file = directory.resolve("dictionary.snap");
+        DictionarySnapshotFile.write(dictionary, file);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        assertTermsEqual(dictionary, DictionarySnapshotFile.read(channel));
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void emptyDictionary() throws Exception {
+        Path file = directory.resolve("empty.snap");
+
+        DictionarySnapshotFile.write(new Dictionary(), file);
+
+        assertEquals(0, DictionarySnapshotFile.read(file).size());
+        assertNull(DictionarySnapshotFile.open(file).findTerm("a"));
+    }
+
+    @Test
+    void lookupsFromMappedFile() throws Exception {
+        Path file = directory.resolve("dictionary.snap");
+        DictionarySnapshotFile.write(sample(100), file);
+
+        DictionarySnapshotFile snapshot = DictionarySnapshotFile.open(file);
+
+        assertEquals(100, snapshot.size());
+        assertEquals(new Term("term42", "explanation of 42 é\nsecond line"), snapshot.getTerm("term42"));
+        assertFalse(snapshot.isTermExists("term100"));
+        assertFalse(snapshot.isTermExists(""));
+        assertThrows(TermNotExistsException.class, () -> snapshot.getTerm("missing"));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.findTerm(null));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.isTermExists(null));
+    }
+
+    @Test
+    void convertsTextFiles() throws Exception {
+        Dictionary dictionary = sample(50);
+        Path text = directory.resolve("dictionary.txt");
+        Path snapshot = directory.resolve("dictionary.snap");
+        Path back = directory.resolve("back.txt");
+        dictionary.exportToFile(text);
+
+        DictionarySnapshotFile.convertFromTextFile(text, snapshot);
+        DictionarySnapshotFile.convertToTextFile(snapshot, back);
+
+        assertEquals(Files.readString(text), Files.readString(back));
+    }
+
+    @Test
+    void rejectsInvalidFiles() throws Exception {
+        Path text = directory.resolve("dictionary.txt");
+        sample(5).exportToFile(text);
+        Path truncated = directory.resolve("truncated.snap");
+        Path snapshot = directory.resolve("dictionary.snap");
+        DictionarySnapshotFile.write(sample(5), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertFalse(DictionarySnapshotFile.isSnapshotFile(text));
+        assertThrows(IllegalArgumentException.class, () -> DictionarySnapshotFile.open(text));
+        assertThrows(IllegalArgumentException.class, () -> DictionarySnapshotFile.open(truncated));
+    }
+
+    @Test
+    void writeWhileDictionaryChanges() throws Exception {
+        ConcurrentDictionary dictionary = new ConcurrentDictionary(sample(2000));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                try {
+                    dictionary.addTerm("added" + i, "x");
+                    dictionary.removeTerm("term" + (i % 2000));
+                    dictionary.addTerm("term" + (i % 2000), "changed");
+                } catch (TermExistsException | TermNotExistsException e) {
+                    // Terms may exist from a previous round
+                }
+                ++i;
+            }
+        });
+        writer.start();
+
+        try {
+            for (int i = 0; i < 5; ++i) {
+                Path file = directory.resolve("concurrent" + i + ".snap");
+                DictionarySnapshotFile.write(dictionary, file);
+
+                // A consistent file reads back, sorted and without duplicates
+                Dictionary read = DictionarySnapshotFile.read(file);
+                DictionarySnapshotFile opened = DictionarySnapshotFile.open(file);
+                assertEquals(read.size(), opened.size());
+                for (Term term : read) {
+                    assertEquals(term, opened.getTerm(term.getTerm()));
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionaryTest {
+    @Test
+    void addUpdateRemove() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        dictionary.addTerm("b", "second");
+        dictionary.addTerm("a", "first");
+
+        assertEquals(2, dictionary.size());
+        assertEquals("first", dictionary.getTerm("a").getExplanation());
+        assertThrows(TermExistsException.class, () -> dictionary.addTerm("a", "again"));
+
+        dictionary.updateTerm("a", "updated");
+        assertEquals("updated", dictionary.getTerm("a").getExplanation());
+
+        dictionary.removeTerm("a");
+        assertFalse(dictionary.isTermExists("a"));
+        assertNull(dictionary.findTerm("a"));
+        assertThrows(TermNotExistsException.class, () -> dictionary.removeTerm("a"));
+        assertThrows(TermNotExistsException.class, () -> dictionary.getTerm("a"));
+    }
+
+    @Test
+    void iteratesInSortedOrder() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        for (String term : Arrays.asList("c", "a", "b", "ab")) {
+            dictionary.addTerm(term, term.toUpperCase());
+        }
+
+        List<String> terms = new ArrayList<String>();
+        for (Term term : dictionary) {
+            terms.add(term.getTerm());
+        }
+
+        assertEquals(Arrays.asList("a", "ab", "b", "c"), terms);
+        assertTrue(dictionary.isTermExists("ab"));
+    }
+}
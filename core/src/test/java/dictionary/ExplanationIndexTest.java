@@ -0,0 +1,81 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExplanationIndexTest {
+    @Test
+    void searchesWords() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        dictionary.addTerm("cat", "A small Animal, with fur");
+        dictionary.addTerm("dog", "A loyal animal");
+        dictionary.addTerm("oak", "A tree");
+
+        assertEquals(Arrays.asList(dictionary.getTerm("cat"), dictionary.getTerm("dog")),
+                dictionary.searchExplanations("animal", true));
+        assertEquals(Arrays.asList(dictionary.getTerm("cat")), dictionary.searchExplanations("fur animal", true));
+        assertEquals(Arrays.asList(dictionary.getTerm("cat"), dictionary.getTerm("oak")),
+                dictionary.searchExplanations("fur, tree", false));
+        assertTrue(dictionary.searchExplanations("fur missing", true).isEmpty());
+    }
+
+    @Test
+    void followsChanges() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        dictionary.addTerm("cat", "animal");
+        dictionary.searchExplanations("animal", true);
+
+        dictionary.updateTerm("cat", "pet");
+        dictionary.addTerm("dog", "animal");
+        dictionary.removeTerm("dog");
+        dictionary.addTerm("cow", "animal");
+
+        assertEquals(Arrays.asList(dictionary.getTerm("cow")), dictionary.searchExplanations("animal", true));
+        assertEquals(Arrays.asList(dictionary.getTerm("cat")), dictionary.searchExplanations("pet", true));
+    }
+
+    @Test
+    void buildWhileDictionaryChanges() throws Exception {
+        for (int round = 0; round < 20; ++round) {
+            ConcurrentDictionary dictionary = new ConcurrentDictionary();
+            for (int i = 0; i < 2000; ++i) {
+                dictionary.addTerm("term" + i, "old");
+            }
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 2000 && running.get(); ++i) {
+                    try {
+                        if (0 == i % 2) {
+                            dictionary.removeTerm("term" + i);
+                        } else {
+                            dictionary.updateTerm("term" + i, "new");
+                        }
+                    } catch (TermNotExistsException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            writer.start();
+            dictionary.searchExplanations("old", true);
+            writer.join();
+
+            List<Term> expected = new ArrayList<Term>();
+            for (Term term : dictionary) {
+                if ("old".equals(term.getExplanation())) {
+                    expected.add(term);
+                }
+            }
+
+            assertEquals(expected, dictionary.searchExplanations("old", true));
+            assertEquals(dictionary.size() - expected.size(), dictionary.searchExplanations("new", true).size());
+        }
+    }
+}
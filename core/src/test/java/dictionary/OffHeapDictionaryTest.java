@@ -0,0 +1,139 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static dictionary.DictionaryFileParserTest.assertTermsEqual;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapDictionaryTest {
+    @TempDir
+    Path directory;
+
+    private static Dictionary sample(int count) throws TermExistsException {
+        Dictionary dictionary = new Dictionary();
+        for (int i = 0; i < count; ++i) {
+            dictionary.addTerm(String.format("term%05d", i), "explanation " + i + " é");
+        }
+
+        return dictionary;
+    }
+
+    @Test
+    void mergesChangesWithStoredTerms() throws Exception {
+        Dictionary expected = sample(100);
+        OffHeapDictionary dictionary = OffHeapDictionary.create(expected);
+
+        dictionary.addTerm("added", "new");
+        dictionary.updateTerm("term00005", "updated");
+        dictionary.removeTerm("term00007");
+        dictionary.addTerm("term00007", "added again");
+        dictionary.removeTerm("term00009");
+        expected.addTerm("added", "new");
+        expected.updateTerm("term00005", "updated");
+        expected.updateTerm("term00007", "added again");
+        expected.removeTerm("term00009");
+
+        assertTermsEqual(expected, dictionary);
+        assertEquals(expected.size(), dictionary.size());
+        assertNull(dictionary.findTerm("term00009"));
+        assertFalse(dictionary.isTermExists("term00009"));
+        assertThrows(TermExistsException.class, () -> dictionary.addTerm("added", "x"));
+        assertThrows(TermNotExistsException.class, () -> dictionary.removeTerm("term00009"));
+
+        dictionary.compact();
+        assertTermsEqual(expected, dictionary);
+    }
+
+    @Test
+    void findsSupplementaryTerms() throws Exception {
+        // Sorted by UTF-16 units, the surrogates come before the high BMP characters
+        Dictionary expected = new Dictionary();
+        expected.addTerm("a\uD83D\uDE00", "1");
+        expected.addTerm("a\uD83D\uDE01b", "2");
+        expected.addTerm("a\uFB01", "3");
+        OffHeapDictionary dictionary = OffHeapDictionary.create(expected);
+
+        assertTermsEqual(expected, dictionary);
+        for (Term term : expected) {
+            assertEquals(term.getExplanation(), dictionary.findTerm(term.getTerm()).getExplanation());
+        }
+
+        assertNull(dictionary.findTerm("a\uD83D\uDE01"));
+        assertNull(dictionary.findTerm("a\uD83D\uDE02"));
+        assertNull(dictionary.findTerm("a\uD83D"));
+        assertNull(dictionary.findTerm("a\uD83D\uDE00c"));
+    }
+
+    @Test
+    void compactsAutomatically() throws Exception {
+        OffHeapDictionary dictionary = OffHeapDictionary.create(sample(10));
+        long size = dictionary.getOffHeapSize();
+
+        for (int i = 0; i < 5000; ++i) {
+            dictionary.addTerm("new" + i, "e");
+        }
+
+        // The changes were folded into the storage on the way
+        assertNotEquals(size, dictionary.getOffHeapSize());
+        assertEquals(5010, dictionary.size());
+        assertTrue(dictionary.isTermExists("new4999"));
+    }
+
+    @Test
+    void snapshotAndExport() throws Exception {
+        Dictionary expected = sample(300);
+        Path snapshot = directory.resolve("dictionary.snap");
+        Path text = directory.resolve("dictionary.txt");
+        DictionarySnapshotFile.write(expected, snapshot);
+
+        OffHeapDictionary dictionary = OffHeapDictionary.createFromSnapshot(snapshot);
+        dictionary.exportToFile(text);
+
+        assertTermsEqual(expected, dictionary);
+        assertTermsEqual(expected, Dictionary.createDictionaryFromFile(text));
+    }
+
+    @Test
+    void readsWhileChanging() throws Exception {
+        OffHeapDictionary dictionary = OffHeapDictionary.create(sample(2000));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 3000 && running.get(); ++i) {
+                    dictionary.updateTerm(String.format("term%05d", i % 2000), "changed " + i);
+                    dictionary.addTerm("added" + i, "e");
+                }
+            } catch (TermExistsException | TermNotExistsException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writer.start();
+
+        try {
+            for (int round = 0; round < 20; ++round) {
+                // Stored terms are never missing, whatever the writer and the compaction do
+                for (int i = 0; i < 2000; i += 7) {
+                    assertTrue(dictionary.isTermExists(String.format("term%05d", i)));
+                }
+
+                String previous = "";
+                for (Term term : dictionary) {
+                    assertTrue(previous.compareTo(term.getTerm()) < 0);
+                    previous = term.getTerm();
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
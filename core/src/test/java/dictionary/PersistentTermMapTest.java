@@ -0,0 +1,236 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentTermMapTest {
+    private static List<Term> terms(Iterator<Term> iterator) {
+        List<Term> terms = new ArrayList<Term>();
+        iterator.forEachRemaining(terms::add);
+
+        return terms;
+    }
+
+    private static void assertSameTerms(TreeMap<String, Term> expected, PersistentTermMap actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<Term>(expected.values()), terms(actual.iterator(null)));
+        assertEquals(expected.isEmpty() ? null : expected.firstKey(), actual.firstKey());
+    }
+
+    @Test
+    void matchesTreeMap() {
+        Random random = new Random(7);
+        TreeMap<String, Term> expected = new TreeMap<String, Term>();
+        PersistentTermMap actual = new PersistentTermMap();
+        List<DictionarySnapshot> snapshots = new ArrayList<DictionarySnapshot>();
+        List<List<Term>> snapshotTerms = new ArrayList<List<Term>>();
+
+        for (int i = 0; i < 20000; ++i) {
+            String key = "k" + random.nextInt(500);
+            Term term = new Term(key, "e" + i);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.putIfAbsent(key, term), actual.putIfAbsent(term));
+                    break;
+                case 1:
+                    assertEquals(expected.replace(key, term), actual.replace(term));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), actual.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), actual.get(key));
+                    assertEquals(expected.ceilingKey(key), actual.ceilingKey(key));
+                    assertEquals(expected.higherKey(key), actual.higherKey(key));
+                    break;
+            }
+
+            if (0 == i % 1000) {
+                assertSameTerms(expected, actual);
+                snapshots.add(actual.snapshot());
+                snapshotTerms.add(new ArrayList<Term>(expected.values()));
+            }
+        }
+
+        assertSameTerms(expected, actual);
+        for (int i = 0; i < snapshots.size(); ++i) {
+            assertEquals(snapshotTerms.get(i), terms(snapshots.get(i).iterator()));
+            assertEquals(snapshotTerms.get(i).size(), snapshots.get(i).size());
+        }
+    }
+
+    @Test
+    void buildsFromSortedTerms() {
+        Term[] sorted = new Term[1000];
+        TreeMap<String, Term> expected = new TreeMap<String, Term>();
+        for (int i = 0; i < sorted.length; ++i) {
+            sorted[i] = new Term(String.format("t%04d", i), "e");
+            expected.put(sorted[i].getTerm(), sorted[i]);
+        }
+
+        PersistentTermMap map = new PersistentTermMap(sorted);
+        assertSameTerms(expected, map);
+
+        for (int i = 0; i < sorted.length; i += 3) {
+            map.remove(sorted[i].getTerm());
+            expected.remove(sorted[i].getTerm());
+        }
+        assertSameTerms(expected, map);
+    }
+
+    @Test
+    void snapshotIsNotChangedByLaterWrites() {
+        PersistentTermMap map = new PersistentTermMap();
+        for (int i = 0; i < 100; ++i) {
+            map.putIfAbsent(new Term("t" + i, "old"));
+        }
+
+        DictionarySnapshot snapshot = map.snapshot();
+        Term old = map.get("t50");
+        map.replace(new Term("t50", "new"));
+        map.remove("t10");
+        map.putIfAbsent(new Term("u", "added"));
+
+        assertSame(old, snapshot.findTerm("t50"));
+        assertTrue(snapshot.isTermExists("t10"));
+        assertFalse(snapshot.isTermExists("u"));
+        assertEquals(100, snapshot.size());
+        assertEquals("new", map.get("t50").getExplanation());
+        assertNull(map.get("t10"));
+        assertEquals(100, map.size());
+    }
+
+    @Test
+    void iteratorIsNotChangedByLaterWrites() {
+        PersistentTermMap map = new PersistentTermMap();
+        for (int i = 0; i < 10; ++i) {
+            map.putIfAbsent(new Term("t" + i, "e"));
+        }
+
+        Iterator<Term> iterator = map.iterator("t5");
+        map.remove("t6");
+        map.putIfAbsent(new Term("t55", "e"));
+
+        List<String> keys = new ArrayList<String>();
+        iterator.forEachRemaining(term -> keys.add(term.getTerm()));
+        assertEquals(List.of("t5", "t6", "t7", "t8", "t9"), keys);
+    }
+
+    @Test
+    void snapshotIndexes() {
+        PersistentTermMap map = new PersistentTermMap();
+        List<Term> sorted = new ArrayList<Term>();
+        for (int i = 0; i < 300; ++i) {
+            Term term = new Term(String.format("t%03d", i), "e");
+            sorted.add(term);
+            map.putIfAbsent(term);
+        }
+
+        DictionarySnapshot snapshot = map.snapshot();
+        for (int i = 0; i < sorted.size(); ++i) {
+            assertSame(sorted.get(i), snapshot.getTermAt(i));
+            assertEquals(i, snapshot.indexOf(sorted.get(i).getTerm()));
+        }
+
+        assertEquals(-1, snapshot.indexOf("a"));
+        assertEquals(-2, snapshot.indexOf("t000a"));
+        assertEquals(-301, snapshot.indexOf("u"));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getTermAt(300));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getTermAt(-1));
+    }
+
+    @Test
+    void snapshotWithAndWithoutTerm() {
+        PersistentTermMap map = new PersistentTermMap();
+        for (int i = 0; i < 100; ++i) {
+            map.putIfAbsent(new Term("t" + i, "e"));
+        }
+
+        DictionarySnapshot snapshot = map.snapshot();
+        DictionarySnapshot added = snapshot.withTerm(new Term("u", "e"));
+        DictionarySnapshot replaced = added.withTerm(new Term("t5", "new"));
+        DictionarySnapshot removed = replaced.withoutTerm("t7");
+
+        assertEquals(100, snapshot.size());
+        assertEquals(101, added.size());
+        assertEquals(101, replaced.size());
+        assertEquals(100, removed.size());
+        assertFalse(snapshot.isTermExists("u"));
+        assertEquals("e", added.findTerm("t5").getExplanation());
+        assertEquals("new", removed.findTerm("t5").getExplanation());
+        assertTrue(replaced.isTermExists("t7"));
+        assertFalse(removed.isTermExists("t7"));
+        assertSame(removed, removed.withoutTerm("missing"));
+    }
+
+    @Test
+    void replaceOnlyEqualTerm() {
+        PersistentTermMap map = new PersistentTermMap();
+        Term term = new Term("a", "x");
+        map.putIfAbsent(term);
+
+        assertFalse(map.replace(new Term("a", "y"), new Term("a", "z")));
+        assertFalse(map.replace(new Term("b", "x"), new Term("b", "z")));
+        assertTrue(map.replace(new Term("a", "x"), new Term("a", "z")));
+        assertEquals("z", map.get("a").getExplanation());
+        assertNull(map.replace(new Term("b", "x")));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void emptyMap() {
+        PersistentTermMap map = new PersistentTermMap();
+
+        assertEquals(0, map.size());
+        assertNull(map.firstKey());
+        assertNull(map.ceilingKey("a"));
+        assertNull(map.remove("a"));
+        assertFalse(map.iterator(null).hasNext());
+        assertEquals(0, map.snapshot().size());
+    }
+
+    @Test
+    void dictionaryIteratorRemove() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        List<Term> removed = new ArrayList<Term>();
+        dictionary.addTermChangeListener(new TermChangeListener() {
+            @Override
+            public void termAdded(Term term) {
+            }
+
+            @Override
+            public void termUpdated(Term oldTerm, Term newTerm) {
+            }
+
+            @Override
+            public void termRemoved(Term term) {
+                removed.add(term);
+            }
+        });
+        for (int i = 0; i < 10; ++i) {
+            dictionary.addTerm("t" + i, "e");
+        }
+
+        Iterator<Term> iterator = dictionary.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getTerm().compareTo("t5") < 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(5, dictionary.size());
+        assertEquals(5, removed.size());
+    }
+}
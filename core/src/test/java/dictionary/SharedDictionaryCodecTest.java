@@ -0,0 +1,97 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedDictionaryCodecTest {
+    private static byte[] roundTrip(SharedDictionaryCodec codec, byte[] raw) {
+        byte[] compressed = new byte[SharedDictionaryCodec.maxCompressedLength(raw.length)];
+        int compressedLength = codec.compress(raw, raw.length, compressed, 0);
+
+        byte[] out = new byte[raw.length];
+        assertEquals(raw.length, codec.decompress(compressed, 0, compressedLength, out, raw.length));
+        assertArrayEquals(raw, out);
+
+        return Arrays.copyOf(compressed, compressedLength);
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            bytes[i] = (byte) ('a' + random.nextInt(26));
+        }
+
+        return bytes;
+    }
+
+    @Test
+    void emptyAndShortBlocks() {
+        SharedDictionaryCodec codec = new SharedDictionaryCodec("shared words ".getBytes(StandardCharsets.UTF_8));
+
+        roundTrip(codec, new byte[0]);
+        roundTrip(codec, "abc".getBytes(StandardCharsets.UTF_8));
+        roundTrip(codec, "shared".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void matchesInDictionaryAndBlock() {
+        byte[] dictionary = "the quick brown fox jumps over the lazy dog ".getBytes(StandardCharsets.UTF_8);
+        SharedDictionaryCodec codec = new SharedDictionaryCodec(dictionary);
+        byte[] raw = "a quick brown fox, then the lazy dog jumps over the quick brown fox"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(roundTrip(codec, raw).length < raw.length);
+    }
+
+    @Test
+    void overlappingMatches() {
+        SharedDictionaryCodec codec = new SharedDictionaryCodec(new byte[0]);
+        byte[] run = new byte[5000];
+        Arrays.fill(run, (byte) 'a');
+        byte[] pattern = "abcabcabcabcabcabcabcabcabcabcabcabcabcabc".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(roundTrip(codec, run).length < 100);
+        assertTrue(roundTrip(codec, pattern).length < pattern.length);
+
+        // Match that starts in the dictionary and continues into the block
+        SharedDictionaryCodec withDictionary = new SharedDictionaryCodec("xyzxyz".getBytes(StandardCharsets.UTF_8));
+        roundTrip(withDictionary, "xyzxyzxyzxyzxyzxyz".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void blocksLargerThanMaxOffset() {
+        Random random = new Random(3);
+        byte[] dictionary = randomBytes(random, SharedDictionaryCodec.MAX_DICTIONARY_SIZE);
+        SharedDictionaryCodec codec = new SharedDictionaryCodec(dictionary);
+
+        // A 20 KB segment repeated 100 KB apart, out of reach of a 2 byte offset
+        byte[] segment = randomBytes(random, 20 * 1024);
+        byte[] raw = new byte[240 * 1024];
+        System.arraycopy(randomBytes(random, raw.length), 0, raw, 0, raw.length);
+        System.arraycopy(segment, 0, raw, 0, segment.length);
+        System.arraycopy(segment, 0, raw, 120 * 1024, segment.length);
+        System.arraycopy(dictionary, 100, raw, 200 * 1024, 1000);
+
+        roundTrip(codec, raw);
+        codec.endCompression();
+    }
+
+    @Test
+    void partialDecompression() {
+        SharedDictionaryCodec codec = new SharedDictionaryCodec("common text ".getBytes(StandardCharsets.UTF_8));
+        byte[] raw = "first common text, second common text, third".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = roundTrip(codec, raw);
+
+        byte[] out = new byte[raw.length];
+        int length = codec.decompress(compressed, 0, compressed.length, out, 10);
+        assertTrue(length >= 10);
+        assertArrayEquals(Arrays.copyOf(raw, length), Arrays.copyOf(out, length));
+    }
+}
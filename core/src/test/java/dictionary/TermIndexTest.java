@@ -0,0 +1,145 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TermIndexTest {
+    // Every encoded length, and surrogates that sort below the chars after them
+    private static final String[] ALPHABET = {"a", "ab", "b", "z", "\u0000", "é", "ü", "中", "\uFFFD",
+            "\uD83D\uDE00", "\uE000"};
+
+    @TempDir
+    Path directory;
+
+    private static List<String> randomTerms(Random random, int count) {
+        TreeSet<String> terms = new TreeSet<String>();
+        while (terms.size() < count) {
+            StringBuilder term = new StringBuilder();
+            for (int length = 1 + random.nextInt(6); length > 0; --length) {
+                term.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            terms.add(term.toString());
+        }
+
+        return new ArrayList<String>(terms);
+    }
+
+    private static TermIndex build(List<String> terms) {
+        TermIndex.Builder builder = new TermIndex.Builder();
+        for (String term : terms) {
+            builder.add(term);
+        }
+
+        return builder.build();
+    }
+
+    private static List<String> list(Iterator<String> iterator) {
+        List<String> terms = new ArrayList<String>();
+        iterator.forEachRemaining(terms::add);
+
+        return terms;
+    }
+
+    @Test
+    void matchesSortedList() {
+        Random random = new Random(11);
+        for (int count : new int[] {1, 15, 16, 17, 33, 1000}) {
+            List<String> terms = randomTerms(random, count);
+            TermIndex index = build(terms);
+
+            assertEquals(count, index.size());
+            assertEquals(terms, list(index.iterator()));
+            for (int i = 0; i < count; ++i) {
+                assertEquals(i, index.indexOf(terms.get(i)));
+                assertEquals(terms.get(i), index.termAt(i));
+                assertEquals(i, index.ceiling(terms.get(i)));
+            }
+
+            for (String probe : randomTerms(random, 200)) {
+                int expected = Collections.binarySearch(terms, probe);
+                assertEquals(expected, index.indexOf(probe), probe);
+                assertEquals((expected >= 0) ? expected : -expected - 1, index.ceiling(probe));
+            }
+
+            for (int ordinal : new int[] {0, count / 2, count - 1, count}) {
+                assertEquals(terms.subList(ordinal, count), list(index.iterator(ordinal)));
+            }
+        }
+    }
+
+    @Test
+    void prefixAndRange() {
+        List<String> terms = randomTerms(new Random(5), 500);
+        TermIndex index = build(terms);
+
+        for (String prefix : new String[] {"", "a", "ab", "é", "\uD83D", "\uD83D\uDE00", "z", "missing"}) {
+            List<String> expected = new ArrayList<String>();
+            for (String term : terms) {
+                if (term.startsWith(prefix) && expected.size() < 20) {
+                    expected.add(term);
+                }
+            }
+            assertEquals(expected, index.getTermsWithPrefix(prefix, 20), prefix);
+        }
+
+        String[][] ranges = {{"", "b"}, {"a", "a"}, {"b", "中"}, {"é", "\uFFFF"}, {"z", "a"}};
+        for (String[] range : ranges) {
+            int from = index.ceiling(range[0]);
+            int to = Math.max(from, index.ceiling(range[1]));
+            List<String> expected = terms.subList(from, Math.min(to, from + 50));
+            assertEquals(expected, index.getTermsInRange(range[0], range[1], 50));
+        }
+    }
+
+    @Test
+    void emptyIndex() {
+        TermIndex index = build(new ArrayList<String>());
+
+        assertEquals(0, index.size());
+        assertEquals(-1, index.indexOf("a"));
+        assertEquals(0, index.ceiling("a"));
+        assertFalse(index.iterator().hasNext());
+        assertFalse(index.iterator(0).hasNext());
+        assertEquals(List.of(), index.getTermsWithPrefix("", 10));
+        assertEquals(List.of(), index.getTermsInRange("", "z", 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.termAt(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.iterator(1));
+    }
+
+    @Test
+    void rejectsUnsortedTerms() {
+        TermIndex.Builder builder = new TermIndex.Builder();
+        builder.add("b");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add("a"));
+        assertThrows(IllegalArgumentException.class, () -> builder.add("b"));
+        assertThrows(IllegalArgumentException.class, () -> TermIndex.build(null));
+    }
+
+    @Test
+    void buildsFromSnapshotFile() throws Exception {
+        Dictionary dictionary = new Dictionary();
+        for (String term : randomTerms(new Random(9), 300)) {
+            dictionary.addTerm(term, "explanation of " + term);
+        }
+        Path snapshot = directory.resolve("dictionary.snap");
+        DictionarySnapshotFile.write(dictionary, snapshot);
+
+        TermIndex index = TermIndex.buildFromSnapshotFile(snapshot);
+
+        assertEquals(list(TermIndex.build(dictionary).iterator()), list(index.iterator()));
+        assertEquals(dictionary.size(), index.size());
+    }
+}
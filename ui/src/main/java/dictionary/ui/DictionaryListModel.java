@@ -0,0 +1,98 @@
+package dictionary.ui;
+
+import dictionary.Dictionary;
+import dictionary.DictionarySnapshot;
+import dictionary.Term;
+import dictionary.TermChangeListener;
+
+import javax.swing.*;
+
+/**
+ * List model of the dictionary terms, in sorted order.
+ * The model shows a snapshot of the dictionary, whose rows are found by index
+ * in logarithmic time, so showing a dictionary doesn't copy its terms.
+ * The model follows the dictionary changes as a TermChangeListener,
+ * applies each one to its own snapshot and reports it as a single row event,
+ * so the list only repaints the rows that changed.
+ * The dictionary should only be changed from the event dispatch thread
+ */
+public class DictionaryListModel extends AbstractListModel<Term> implements TermChangeListener {
+    private static final DictionarySnapshot EMPTY = new Dictionary().snapshot();
+
+    private Dictionary dictionary;
+    private DictionarySnapshot terms;
+
+    /**
+     * Initialize model of given dictionary
+     * @param dictionary dictionary to show
+     */
+    public DictionaryListModel(Dictionary dictionary) {
+        setDictionary(dictionary);
+    }
+
+    /**
+     * Show another dictionary
+     * @param dictionary dictionary to show
+     */
+    public void setDictionary(Dictionary dictionary) {
+        if (null == dictionary) {
+            throw new IllegalArgumentException("null argument");
+        }
+
+        if (null != this.dictionary) {
+            this.dictionary.removeTermChangeListener(this);
+        }
+
+        int oldSize = (null == terms) ? 0 : terms.size();
+        if (oldSize > 0) {
+            terms = EMPTY;
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+
+        this.dictionary = dictionary;
+        dictionary.addTermChangeListener(this);
+        terms = dictionary.snapshot();
+        if (terms.size() > 0) {
+            fireIntervalAdded(this, 0, terms.size() - 1);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return terms.size();
+    }
+
+    @Override
+    public Term getElementAt(int index) {
+        return terms.getTermAt(index);
+    }
+
+    @Override
+    public void termAdded(Term term) {
+        if (terms.indexOf(term.getTerm()) >= 0) {
+            return;
+        }
+
+        terms = terms.withTerm(term);
+        int index = terms.indexOf(term.getTerm());
+        fireIntervalAdded(this, index, index);
+    }
+
+    @Override
+    public void termUpdated(Term oldTerm, Term newTerm) {
+        int index = terms.indexOf(newTerm.getTerm());
+        if (index >= 0) {
+            terms = terms.withTerm(newTerm);
+            fireContentsChanged(this, index, index);
+        }
+    }
+
+    @Override
+    public void termRemoved(Term term) {
+        int index = terms.indexOf(term.getTerm());
+        if (index >= 0) {
+            terms = terms.withoutTerm(term.getTerm());
+            fireIntervalRemoved(this, index, index);
+        }
+    }
+}
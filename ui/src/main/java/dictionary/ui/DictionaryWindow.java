@@ -0,0 +1,797 @@
+package dictionary.ui;
+
+import dictionary.Dictionary;
+import dictionary.DictionaryFileWriter;
+import dictionary.DictionarySnapshot;
+import dictionary.DictionarySnapshotFile;
+import dictionary.MappedFileReader;
+import dictionary.Term;
+import dictionary.TermExistsException;
+import dictionary.TermNotExistsException;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.FileNotFoundException;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implement the main window of the program
+ */
+public class DictionaryWindow extends JFrame {
+    private final int SEARCH_FIELD_HEIGHT = 30;
+    private final int SEARCH_PANEL_HEIGHT = 50;
+    private final int LIST_HEIGHT = 400;
+    private final int BUTTONS_PANEL_HEIGHT = 50;
+    private final int FRAME_HEIGHT = SEARCH_PANEL_HEIGHT + LIST_HEIGHT + BUTTONS_PANEL_HEIGHT;
+    private final int FRAME_WIDTH = 600;
+    private final int MAX_SUGGESTIONS = 10;
+    private final int MAX_EDIT_DISTANCE = 2;
+    private final int PROGRESS_POPUP_DELAY = 200;
+    private final int PROGRESS_INTERVAL = 4096;
+    private Dictionary dictionary;
+    private JMenuBar bar;
+    private JMenu fileMenu;
+    private JMenuItem importMenuItem;
+    private JMenuItem exportMenuItem;
+    private JMenuItem closeMenuItem;
+    private JPanel searchPanel;
+    private JTextField searchField;
+    private JPopupMenu suggestionsMenu;
+    private JButton searchButton;
+    private JButton searchTextButton;
+    private JScrollPane scrollDictionary;
+    private JList<Term> dictionaryList;
+    private DictionaryListModel dictionaryModel;
+    private JPanel buttonsPanel;
+    private JButton addButton;
+    private JButton updateButton;
+    private JButton removeButton;
+    private int backgroundTasks;
+
+    /**
+     * Initialize window
+     */
+    public DictionaryWindow() {
+        super("Dictionary");
+        setLayout(new BoxLayout(getContentPane(), BoxLayout.Y_AXIS));
+        setSize(FRAME_WIDTH, FRAME_HEIGHT);
+
+        dictionary = new Dictionary();
+
+        initMenu();
+        initSearchPanel();
+        initTermsList();
+        initButtonsPanel();
+
+        setJMenuBar(bar);
+        add(searchPanel);
+        add(scrollDictionary);
+        add(buttonsPanel);
+    }
+
+    /**
+     * Init window menu
+     */
+    private void initMenu() {
+        bar = new JMenuBar();
+
+        // Add file menu
+        fileMenu = new JMenu("File");
+        fileMenu.setMnemonic('F');
+
+        // Add import option to file menu
+        importMenuItem = new JMenuItem("Import Dictionary");
+        importMenuItem.addActionListener(new MenuItemActionListener());
+        fileMenu.add(importMenuItem);
+
+        // Add export option to menu
+        exportMenuItem = new JMenuItem("Export Dictionary");
+        exportMenuItem.addActionListener(new MenuItemActionListener());
+        fileMenu.add(exportMenuItem);
+
+        // Add close option to file menu
+        closeMenuItem = new JMenuItem("Close");
+        closeMenuItem.addActionListener(new MenuItemActionListener());
+        fileMenu.add(closeMenuItem);
+
+        bar.add(fileMenu);
+    }
+
+    /**
+     * Initialize the window search panel
+     */
+    private void initSearchPanel() {
+        searchPanel = new JPanel();
+        searchPanel.setLayout(new FlowLayout());
+        searchPanel.setPreferredSize(new Dimension(FRAME_WIDTH, SEARCH_PANEL_HEIGHT));
+
+        // Add search field
+        searchField = new JTextField();
+        searchField.setPreferredSize(new Dimension(FRAME_WIDTH / 2, SEARCH_FIELD_HEIGHT));
+        searchField.getDocument().addDocumentListener(new SearchFieldDocumentListener());
+        searchPanel.add(searchField);
+
+        // Suggestions popup, shown while typing
+        suggestionsMenu = new JPopupMenu();
+        suggestionsMenu.setFocusable(false);
+
+        // Add search button
+        searchButton = new JButton("Search");
+        searchButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                suggestionsMenu.setVisible(false);
+
+                String term = searchField.getText();
+                Term dictionaryTerm = dictionary.findTerm(term);
+                if (null != dictionaryTerm) {
+                    JOptionPane.showMessageDialog(DictionaryWindow.this, dictionaryTerm.toString());
+                    return;
+                }
+
+                String notFoundMsg = String.format("The term %s not exists", term);
+
+                // Suggest close terms, the searched term may be misspelled
+                showSearchResult(new SearchWorker() {
+                    @Override
+                    protected String runTask() {
+                        String msg = notFoundMsg;
+
+                        java.util.List<Term> similar = searched.getSimilarTerms(term, MAX_EDIT_DISTANCE);
+                        if (isCancelled()) {
+                            return null;
+                        }
+
+                        if (!similar.isEmpty()) {
+                            StringBuilder suggestions = new StringBuilder();
+                            for (Term t : similar.subList(0, Math.min(similar.size(), MAX_SUGGESTIONS))) {
+                                suggestions.append(suggestions.length() > 0 ? ", " : "").append(t.getTerm());
+                            }
+
+                            msg = String.format("%s\nDid you mean: %s?", msg, suggestions);
+                        }
+
+                        return msg;
+                    }
+                }, "Searching terms similar to " + term);
+            }
+        });
+
+        searchPanel.add(searchButton);
+
+        // Add explanations search button
+        searchTextButton = new JButton("Search text");
+        searchTextButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                suggestionsMenu.setVisible(false);
+
+                String query = searchField.getText();
+                showSearchResult(new SearchWorker() {
+                    @Override
+                    protected String runTask() {
+                        java.util.List<Term> terms = searched.searchExplanations(query, true);
+                        if (isCancelled()) {
+                            return null;
+                        }
+
+                        if (terms.isEmpty()) {
+                            return "No matching terms";
+                        }
+
+                        StringBuilder msg = new StringBuilder();
+                        for (Term term : terms.subList(0, Math.min(terms.size(), MAX_SUGGESTIONS))) {
+                            msg.append(term).append('\n');
+                        }
+
+                        if (terms.size() > MAX_SUGGESTIONS) {
+                            msg.append(String.format("... and %d more", terms.size() - MAX_SUGGESTIONS));
+                        }
+
+                        return msg.toString();
+                    }
+                }, "Searching explanations for " + query);
+            }
+        });
+
+        searchPanel.add(searchTextButton);
+    }
+
+    /**
+     * Run search in the background and show its result when done, unless it was cancelled
+     * @param worker the search
+     * @param message description of the search
+     */
+    private void showSearchResult(SearchWorker worker, String message) {
+        worker.addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent e) {
+                if (SwingWorker.StateValue.DONE != e.getNewValue() || worker.isCancelled()) {
+                    return;
+                }
+
+                try {
+                    JOptionPane.showMessageDialog(DictionaryWindow.this, worker.get());
+                } catch (ExecutionException exp) {
+                    showTaskError(exp);
+                } catch (InterruptedException exp) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        runInBackground(worker, message);
+    }
+
+    /**
+     * Show the terms that start with the search field text
+     */
+    private void showSuggestions() {
+        suggestionsMenu.setVisible(false);
+        suggestionsMenu.removeAll();
+
+        String prefix = searchField.getText();
+        if (prefix.isEmpty() || !searchField.isShowing()) {
+            return;
+        }
+
+        for (Term term : dictionary.getTermsWithPrefix(prefix, MAX_SUGGESTIONS)) {
+            JMenuItem item = new JMenuItem(term.getTerm());
+            item.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    searchField.setText(term.getTerm());
+                    suggestionsMenu.setVisible(false);
+                }
+            });
+            suggestionsMenu.add(item);
+        }
+
+        // Don't suggest the term that was already typed
+        if (suggestionsMenu.getComponentCount() > 0
+                && !(1 == suggestionsMenu.getComponentCount() && dictionary.isTermExists(prefix))) {
+            suggestionsMenu.show(searchField, 0, searchField.getHeight());
+        }
+    }
+
+    /**
+     * Initialize dictionary terms list
+     */
+    private void initTermsList() {
+        // Create list, only the visible rows are rendered
+        dictionaryModel = new DictionaryListModel(dictionary);
+        dictionaryList = new JList<Term>(dictionaryModel);
+        dictionaryList.setCellRenderer(new TermCellRenderer());
+        dictionaryList.setPrototypeCellValue(new Term("Term", "Explanation"));
+        dictionaryList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        // Show the full term on double click
+        dictionaryList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                Term term = dictionaryList.getSelectedValue();
+                if (2 == e.getClickCount() && null != term) {
+                    JOptionPane.showMessageDialog(DictionaryWindow.this, term.toString());
+                }
+            }
+        });
+
+        // Make the list scrollable
+        scrollDictionary = new JScrollPane(dictionaryList);
+        scrollDictionary.setPreferredSize(new Dimension(FRAME_WIDTH, LIST_HEIGHT));
+        scrollDictionary.setMaximumSize(new Dimension(FRAME_WIDTH, LIST_HEIGHT));
+        scrollDictionary.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+        scrollDictionary.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+    }
+
+    /**
+     * Initialize window buttons:
+     *  - add
+     *  - update
+     *  - remove
+     */
+    private void initButtonsPanel() {
+        buttonsPanel = new JPanel();
+        buttonsPanel.setLayout(new FlowLayout());
+        buttonsPanel.setPreferredSize(new Dimension(FRAME_WIDTH, BUTTONS_PANEL_HEIGHT));
+
+        // Add "add button"
+        addButton = new JButton("Add term");
+        addButton.addActionListener(new ControlButtonsActionListener());
+        buttonsPanel.add(addButton);
+
+        // Add update button
+        updateButton = new JButton("Update term");
+        updateButton.addActionListener(new ControlButtonsActionListener());
+        buttonsPanel.add(updateButton);
+
+        // Add remove button
+        removeButton = new JButton("Remove term");
+        removeButton.addActionListener(new ControlButtonsActionListener());
+        buttonsPanel.add(removeButton);
+    }
+
+    /**
+     * Search field listener, updates the suggestions on every change
+     */
+    private class SearchFieldDocumentListener implements DocumentListener {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            // Update after the event, the text field may not be updated yet
+            SwingUtilities.invokeLater(DictionaryWindow.this::showSuggestions);
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            SwingUtilities.invokeLater(DictionaryWindow.this::showSuggestions);
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+        }
+    }
+
+    /**
+     * JMenu listener
+     */
+    private class MenuItemActionListener implements ActionListener {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            if (closeMenuItem.equals(e.getSource())) {
+                // Close option chosen
+                System.exit(0);
+            }
+
+            JFileChooser dictionaryFileChooser = new JFileChooser();
+            dictionaryFileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+
+            if (importMenuItem.equals(e.getSource())) {
+                // Get file to import from
+                int res = dictionaryFileChooser.showOpenDialog(DictionaryWindow.this);
+                if (JFileChooser.CANCEL_OPTION == res) {
+                    return;
+                }
+            } else if (exportMenuItem.equals(e.getSource())) {
+                // Get file to export to
+                int res = dictionaryFileChooser.showSaveDialog(DictionaryWindow.this);
+                if (JFileChooser.CANCEL_OPTION == res) {
+                    return;
+                }
+            }
+
+            // Get chosen file path
+            Path filePath = dictionaryFileChooser.getSelectedFile().toPath();
+            if (null == filePath) {
+                JOptionPane.showMessageDialog(null, "Invalid file",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            if (importMenuItem.equals(e.getSource())) {
+                if (!Files.exists(filePath)) {
+                    JOptionPane.showMessageDialog(null, "File not found",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                // Import dictionary from file
+                runInBackground(new ImportWorker(filePath), "Importing " + filePath.getFileName());
+            } else if (exportMenuItem.equals(e.getSource())) {
+                // Export dictionary to chosen file
+                runInBackground(new ExportWorker(filePath), "Exporting " + filePath.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Run task in the background, showing its progress.
+     * The dictionary can't be modified while the task runs
+     * @param worker task to run, reports progress in percents and stops when cancelled
+     * @param message description of the task
+     */
+    private void runInBackground(BackgroundWorker<?> worker, String message) {
+        ProgressMonitor monitor = new ProgressMonitor(this, message, null, 0, 100);
+        monitor.setMillisToDecideToPopup(PROGRESS_POPUP_DELAY);
+
+        // Poll the cancel button, the task may not report progress for a while
+        Timer cancelPoller = new Timer(PROGRESS_POPUP_DELAY, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (monitor.isCanceled()) {
+                    worker.cancel(false);
+                }
+            }
+        });
+
+        worker.addPropertyChangeListener(new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent e) {
+                if ("progress".equals(e.getPropertyName())) {
+                    monitor.setProgress((Integer) e.getNewValue());
+                } else if (SwingWorker.StateValue.DONE == e.getNewValue()) {
+                    cancelPoller.stop();
+                    monitor.close();
+                }
+            }
+        });
+
+        cancelPoller.start();
+        runInBackground(worker);
+    }
+
+    /**
+     * Run task in the background.
+     * The dictionary can't be modified while the task runs, even after it was cancelled
+     * @param worker task to run
+     */
+    private void runInBackground(BackgroundWorker<?> worker) {
+        if (0 == backgroundTasks++) {
+            setModifyControlsEnabled(false);
+        }
+
+        worker.execute();
+    }
+
+    /**
+     * Called when a background task has really finished, enables the controls after the last one
+     */
+    private void backgroundTaskFinished() {
+        if (0 == --backgroundTasks) {
+            setModifyControlsEnabled(true);
+        }
+    }
+
+    /**
+     * Enable or disable the controls that modify the dictionary
+     * @param isEnabled true to enable the controls, false to disable them
+     */
+    private void setModifyControlsEnabled(boolean isEnabled) {
+        importMenuItem.setEnabled(isEnabled);
+        exportMenuItem.setEnabled(isEnabled);
+        addButton.setEnabled(isEnabled);
+        updateButton.setEnabled(isEnabled);
+        removeButton.setEnabled(isEnabled);
+    }
+
+    /**
+     * Show error of a background task
+     * @param exp the task exception
+     */
+    private void showTaskError(ExecutionException exp) {
+        Throwable cause = exp.getCause();
+        String msg = (cause instanceof FileNotFoundException) ? "File not found" : cause.getMessage();
+
+        JOptionPane.showMessageDialog(DictionaryWindow.this, msg, "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Background task that tells the window when it has really finished.
+     * A cancelled SwingWorker is done at once, while its task may still be running
+     * @param <T> type of the task result
+     */
+    private abstract class BackgroundWorker<T> extends SwingWorker<T, Void> {
+        // Set by the task when it starts, or when it's cancelled before starting
+        private final AtomicBoolean isClaimed = new AtomicBoolean();
+
+        /**
+         * Initialize worker
+         */
+        BackgroundWorker() {
+            addPropertyChangeListener(new PropertyChangeListener() {
+                @Override
+                public void propertyChange(PropertyChangeEvent e) {
+                    // Cancelled before it started, the task will never run
+                    if (SwingWorker.StateValue.DONE == e.getNewValue() && isClaimed.compareAndSet(false, true)) {
+                        backgroundTaskFinished();
+                    }
+                }
+            });
+        }
+
+        @Override
+        protected final T doInBackground() throws Exception {
+            if (!isClaimed.compareAndSet(false, true)) {
+                return null;
+            }
+
+            try {
+                return runTask();
+            } finally {
+                SwingUtilities.invokeLater(DictionaryWindow.this::backgroundTaskFinished);
+            }
+        }
+
+        /**
+         * Run the task, on a background thread
+         * @return the task result
+         * @throws Exception thrown when the task fails
+         */
+        protected abstract T runTask() throws Exception;
+    }
+
+    /**
+     * Search of the current dictionary, resulting in a message to show.
+     * The search stops when cancelled, with no message
+     */
+    private abstract class SearchWorker extends BackgroundWorker<String> {
+        protected final Dictionary searched = dictionary;
+    }
+
+    /**
+     * Imports dictionary file in the background.
+     * The imported dictionary replaces the current one only when the import succeeds
+     */
+    private class ImportWorker extends BackgroundWorker<Dictionary> {
+        private final Path filePath;
+
+        /**
+         * Initialize import of given file
+         * @param filePath path of the file to import
+         */
+        ImportWorker(Path filePath) {
+            this.filePath = filePath;
+        }
+
+        @Override
+        protected Dictionary runTask() throws IOException {
+            if (DictionarySnapshotFile.isSnapshotFile(filePath)) {
+                FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ);
+                long size = channel.size();
+
+                // Report the bytes read so far, and stop if cancelled
+                return DictionarySnapshotFile.read(new ReadableByteChannel() {
+                    @Override
+                    public int read(ByteBuffer buffer) throws IOException {
+                        if (isCancelled()) {
+                            throw new InterruptedIOException("Import cancelled");
+                        }
+
+                        int count = channel.read(buffer);
+                        setProgress((0 == size) ? 100 : (int) (100 * channel.position() / size));
+
+                        return count;
+                    }
+
+                    @Override
+                    public boolean isOpen() {
+                        return channel.isOpen();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        channel.close();
+                    }
+                });
+            }
+
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                long size = channel.size();
+                MappedFileReader file = new MappedFileReader(channel, 0, size, Dictionary.FILE_CHARSET);
+
+                // Report the bytes read so far, and stop if cancelled
+                return Dictionary.createDictionaryFromFile(new FilterReader(file) {
+                    @Override
+                    public int read(char[] buffer, int offset, int length) throws IOException {
+                        if (isCancelled()) {
+                            throw new InterruptedIOException("Import cancelled");
+                        }
+
+                        int count = super.read(buffer, offset, length);
+                        setProgress((0 == size) ? 100 : (int) (100 * file.getPosition() / size));
+
+                        return count;
+                    }
+                });
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+
+            try {
+                dictionary = get();
+                dictionaryModel.setDictionary(dictionary);
+            } catch (ExecutionException exp) {
+                showTaskError(exp);
+            } catch (InterruptedException exp) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Exports the dictionary in the background
+     */
+    private class ExportWorker extends BackgroundWorker<Void> {
+        private final Path filePath;
+        private final DictionarySnapshot exported;
+
+        /**
+         * Initialize export of the current dictionary, as it is now.
+         * The dictionary may be changed while it's exported
+         * @param filePath path of the file to export to
+         */
+        ExportWorker(Path filePath) {
+            this.filePath = filePath;
+            exported = dictionary.snapshot();
+        }
+
+        @Override
+        protected Void runTask() throws IOException {
+            FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try (DictionaryFileWriter writer = new DictionaryFileWriter(channel, Dictionary.FILE_CHARSET)) {
+                int size = exported.size();
+                int count = 0;
+                for (Term term : exported) {
+                    if (isCancelled()) {
+                        break;
+                    }
+
+                    writer.writeTerm(term);
+
+                    // Report the terms written so far
+                    if (0 == ++count % PROGRESS_INTERVAL) {
+                        setProgress((int) (100L * count / size));
+                    }
+                }
+            }
+
+            if (isCancelled()) {
+                Files.deleteIfExists(filePath);
+            }
+
+            return null;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+
+            try {
+                get();
+            } catch (ExecutionException exp) {
+                showTaskError(exp);
+            } catch (InterruptedException exp) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Renders term as a single line
+     */
+    private static class TermCellRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+
+            Term term = (Term) value;
+            setText(String.format("%s: %s", term.getTerm(), term.getExplanation().replace('\n', ' ')));
+
+            return this;
+        }
+    }
+
+    private class ControlButtonsActionListener implements ActionListener {
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            JButton btn = (JButton) e.getSource();
+
+            if (btn.equals(addButton)) {
+                handleAdd();
+            } else if (btn.equals(updateButton)) {
+                handleUpdate();
+            } else if (btn.equals(removeButton)) {
+                handleRemove();
+            }
+        }
+
+        private String showExplanationInputDialog() {
+            final JTextArea text = new JTextArea("", 20, 40);
+            JOptionPane pane = new JOptionPane(new Object[] { "Enter explanation:",
+                    new JScrollPane(text) }, JOptionPane.QUESTION_MESSAGE,
+                    JOptionPane.OK_CANCEL_OPTION);
+
+            pane.setWantsInput(false);
+            JDialog dialog = pane.createDialog(DictionaryWindow.this, "");
+            dialog.pack();
+            dialog.setVisible(true);
+            Integer value = (Integer) pane.getValue();
+            if (value == null || value == JOptionPane.CANCEL_OPTION
+                    || value == JOptionPane.CLOSED_OPTION) {
+                return "";
+            }
+
+            return text.getText();
+        }
+
+        private void handleAdd() {
+            // Get term from user
+            String term = JOptionPane.showInputDialog(DictionaryWindow.this, "Enter term:");
+            if (null == term || dictionary.isTermExists(term)) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, "Term already exists");
+                return;
+            }
+
+            String explanation = showExplanationInputDialog();
+            if (null == explanation || explanation.isEmpty()) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, "Empty explanation");
+                return;
+            }
+
+            // Add user term to dictionary
+            try {
+                dictionary.addTerm(term, explanation);
+            } catch(TermExistsException exp) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, exp.getMessage());
+            }
+        }
+
+        private void handleUpdate() {
+            // Get term from user
+            String term = JOptionPane.showInputDialog(DictionaryWindow.this, "Enter term:");
+            Term existing = (null == term) ? null : dictionary.findTerm(term);
+            if (null == existing) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, "Term not exists");
+                return;
+            }
+
+            // Get new explanation from user
+            String explanation = showExplanationInputDialog();
+            if (null == explanation || explanation.isEmpty()) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, "Empty explanation");
+                return;
+            }
+
+            // Update term
+            try {
+                dictionary.updateTerm(existing, explanation);
+            } catch(TermNotExistsException exp) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, exp.getMessage());
+            }
+        }
+
+        private void handleRemove() {
+            // Get term from user
+            String term = JOptionPane.showInputDialog(DictionaryWindow.this, "Enter term:");
+            Term existing = (null == term) ? null : dictionary.findTerm(term);
+            if (null == existing) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, "Term not exists");
+                return;
+            }
+
+            // Remove term from dictionary
+            try {
+                dictionary.removeTerm(existing);
+            } catch(TermNotExistsException exp) {
+                JOptionPane.showMessageDialog(DictionaryWindow.this, exp.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Moti Azran
+ */
+
+package dictionary.ui;
+
+import dictionary.ConcurrentDictionary;
+import dictionary.Dictionary;
+import dictionary.DictionaryMetrics;
+import dictionary.DictionaryServer;
+
+import javax.management.JMException;
+import javax.swing.*;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Main program class
+ */
+public class Main {
+    /**
+     * Program entry point, creates main program window.
+     * With -Ddictionary.metrics=true the dictionary metrics are published over JMX,
+     * and -Ddictionary.metrics.logPeriod=seconds also logs them periodically.
+     * With --server port [dictionary file] no window is created, and the dictionary
+     * is served on the local port instead
+     * @param args command line arguments
+     * @throws JMException thrown when the metrics MBean registration failed
+     * @throws IOException thrown when the server dictionary file can't be read or the port can't be listened on
+     * @throws InterruptedException thrown when interrupted while serving
+     */
+    public static void main(String[] args) throws JMException, IOException, InterruptedException {
+        DictionaryMetrics metrics = DictionaryMetrics.getInstance();
+        if (metrics.isEnabled()) {
+            metrics.registerMBean();
+
+            long logPeriod = Long.getLong("dictionary.metrics.logPeriod", 0);
+            if (logPeriod > 0) {
+                metrics.startLogging(logPeriod, TimeUnit.SECONDS);
+            }
+        }
+
+        if (args.length > 0 && "--server".equals(args[0])) {
+            runServer(args);
+            return;
+        }
+
+        DictionaryWindow window = new DictionaryWindow();
+        window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        window.setVisible(true);
+    }
+
+    /**
+     * Serve dictionary until the process is stopped
+     * @param args command line arguments, --server port [dictionary file]
+     * @throws IOException thrown when the dictionary file can't be read or the port can't be listened on
+     * @throws InterruptedException thrown when interrupted while serving
+     */
+    private static void runServer(String[] args) throws IOException, InterruptedException {
+        int port = -1;
+        if (2 <= args.length && args.length <= 3) {
+            try {
+                port = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                // Not a port, the usage is printed below
+            }
+        }
+
+        if (port < 0 || port > 0xFFFF) {
+            System.err.println("Usage: --server port [dictionary file]");
+            System.exit(1);
+        }
+
+        Dictionary dictionary = (3 == args.length)
+                ? new ConcurrentDictionary(Dictionary.createDictionaryFromFile(Paths.get(args[2])))
+                : new ConcurrentDictionary();
+
+        DictionaryServer server = new DictionaryServer(dictionary, InetAddress.getLoopbackAddress(), port);
+        System.out.printf("Serving %d terms on port %d%n", dictionary.size(), server.getPort());
+        server.join();
+    }
+}